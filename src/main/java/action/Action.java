@@ -1,29 +1,16 @@
 package action;
 
 import exceptions.TabbyException;
-import exceptions.TabbyExceptionIncompleteCommand;
-import exceptions.TabbyExceptionInvalidCommand;
-import exceptions.TabbyExceptionInvalidInput;
-import exceptions.TabbyExceptionInvalidTaskNumber;
 import tabby.Ui;
 import task.TaskManager;
+import task.TaskSelection;
 
 /**
  * Abstract class representing an action that can be performed.
  */
 public abstract class Action {
-
-    private enum Command {
-        LIST,
-        MARK,
-        UNMARK,
-        DELETE,
-        TODO,
-        DEADLINE,
-        EVENT,
-        FIND,
-        REMINDER
-    }
+    private static final long NOT_A_WINDOW = -1;
+    private static final long NOT_AN_ID = 0;
 
     /**
      * Parses the user input and returns the appropriate Action object.
@@ -33,200 +20,325 @@ public abstract class Action {
      * @param isUserInput Whether the input comes from a user.
      * @param ui The UI handler for user feedback.
      * @return An Action object representing the parsed command.
-     * @throws TabbyExceptionInvalidCommand If the command is invalid.
-     * @throws TabbyExceptionInvalidInput If the mark command is invalid.
-     * @throws TabbyExceptionInvalidTaskNumber If the task number is not a valid integer.
-     * @throws TabbyExceptionIncompleteCommand If the command is incomplete.
+     * @throws TabbyException If the command is invalid or incomplete, or its task number or reminder
+     *                        options are invalid.
      */
     public static Action userAction(String input, boolean isDone, boolean isUserInput, Ui ui)
-            throws TabbyExceptionInvalidCommand, TabbyExceptionInvalidInput,
-            TabbyExceptionInvalidTaskNumber, TabbyExceptionIncompleteCommand {
+            throws TabbyException {
+        ActionResult result = tryUserAction(input, isDone, isUserInput, ui);
+        if (!result.isSuccess()) {
+            throw result.error();
+        }
+        return result.action();
+    }
 
-        validateInitialInput(input);
-        String[] parsedTask = Parser.parseTask(input);
-        Command command = parseCommand(parsedTask);
+    /**
+     * Parses the user input like {@link #userAction}, but returns an invalid command as an error result
+     * instead of throwing. Errors are found without throwing anything and their results are shared, so
+     * invalid commands cost no more to handle than valid ones.
+     *
+     * @param input The user's input string.
+     * @param isDone Whether the task is marked as done.
+     * @param isUserInput Whether the input comes from a user.
+     * @param ui The UI handler for user feedback.
+     * @return The action to run, or the error that makes the command invalid.
+     */
+    public static ActionResult tryUserAction(String input, boolean isDone, boolean isUserInput, Ui ui) {
+        Parser.CommandLine commandLine = Parser.scanCommand(input);
+        if (commandLine == null) {
+            return ActionResult.INVALID_COMMAND;
+        }
 
-        return createAction(command, parsedTask, isDone, isUserInput, ui);
+        Command command = commandLine.command();
+        String arguments = commandLine.arguments();
+        if (arguments.isEmpty() && (command == null || !command.canStandAlone())) {
+            return ActionResult.INCOMPLETE_COMMAND;
+        }
+        if (command == null) {
+            return ActionResult.INVALID_COMMAND;
+        }
+        return createAction(command, arguments, isDone, isUserInput, ui);
     }
 
     /**
-     * Validates the initial user input before processing.
+     * Creates an appropriate {@code Action} object based on the parsed command.
      *
-     * @param input The user-provided input string to be validated.
-     * @throws TabbyExceptionInvalidCommand If the input is null, empty, or fails validation.
+     * @param command The {@code Command} enum representing the user command.
+     * @param arguments The trimmed text after the command, which is empty if there is none.
+     * @param isDone A boolean flag indicating whether the task should be marked as done.
+     * @param isUserInput A boolean flag indicating whether the input originated from a user.
+     * @param ui The UI handler responsible for user feedback.
+     * @return The {@code Action} corresponding to the given command, or the error that makes it invalid.
      */
-    private static void validateInitialInput(String input)
-            throws TabbyExceptionInvalidCommand {
-        if (input == null || input.trim().isEmpty()) {
-            throw new TabbyExceptionInvalidCommand();
-        }
-        if (Parser.validateInput(input)) {
-            throw new TabbyExceptionInvalidCommand();
+    private static ActionResult createAction(Command command, String arguments,
+                                             boolean isDone, boolean isUserInput, Ui ui) {
+        return switch (command) {
+        case LIST -> ActionResult.success(new ListAction());
+        case REMINDER -> createRemindAction(arguments);
+        case STATS -> ActionResult.success(new StatsAction());
+        case FIND -> createFindAction(arguments);
+        case FUZZY_FIND -> createFuzzyFindAction(arguments);
+        case SEARCH -> createSearchAction(arguments);
+        case TODO, DEADLINE, EVENT -> createAddAction(command, arguments, isDone, isUserInput, ui);
+        case MARK, UNMARK, DELETE -> createTaskManagementAction(command, arguments);
+        };
+    }
+
+    /**
+     * Creates a {@code FindAction} based on the parsed task input.
+     *
+     * @param arguments The search query.
+     * @return A {@code FindAction} object initialized with the search query, or an incomplete command error
+     *         if the search query is missing or empty.
+     */
+    private static ActionResult createFindAction(String arguments) {
+        if (arguments.isEmpty()) {
+            return ActionResult.INCOMPLETE_COMMAND;
         }
+        return ActionResult.success(new FindAction(arguments));
     }
 
     /**
-     * Parses the command from the given array of parsed task components.
+     * Creates a {@code FuzzyFindAction} based on the parsed task input.
      *
-     * @param parsedTask An array of strings representing the parsed user input.
-     * @return A {@code Command} enum value corresponding to the parsed command.
-     * @throws TabbyExceptionInvalidCommand If the parsed task array is invalid or if the
-     *                                      command is not recognized.
+     * @param arguments The possibly misspelled keywords.
+     * @return A {@code FuzzyFindAction} object initialized with the search query, or an incomplete command
+     *         error if the search query is missing or empty.
      */
-    private static Command parseCommand(String[] parsedTask)
-            throws TabbyExceptionInvalidCommand {
-        validateParsedTask(parsedTask);
-        try {
-            return Command.valueOf(parsedTask[0].toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new TabbyExceptionInvalidCommand();
+    private static ActionResult createFuzzyFindAction(String arguments) {
+        if (arguments.isEmpty()) {
+            return ActionResult.INCOMPLETE_COMMAND;
         }
+        return ActionResult.success(new FuzzyFindAction(arguments));
     }
 
     /**
-     * Validates the parsed task array to ensure it is not null or empty.
+     * Creates a {@code SearchAction} based on the parsed task input.
      *
-     * @param parsedTask The array of parsed task components to be validated.
-     * @throws TabbyExceptionInvalidCommand If the {@code parsedTask} array is {@code null} or empty.
+     * @param arguments The words to search for.
+     * @return A {@code SearchAction} object initialized with the search query, or an incomplete command
+     *         error if the search query is missing or empty.
      */
-    private static void validateParsedTask(String[] parsedTask)
-            throws TabbyExceptionInvalidCommand {
-        if (parsedTask == null || parsedTask.length == 0) {
-            throw new TabbyExceptionInvalidCommand();
+    private static ActionResult createSearchAction(String arguments) {
+        if (arguments.isEmpty()) {
+            return ActionResult.INCOMPLETE_COMMAND;
         }
+        return ActionResult.success(new SearchAction(arguments));
     }
 
     /**
-     * Creates an appropriate {@code Action} object based on the parsed command.
+     * Creates a {@code RemindAction} based on the parsed task input.
+     * The options are either a number of tasks to list or a time window such as {@code within 3d}.
      *
-     * @param command The {@code Command} enum representing the user command.
-     * @param parsedTask An array of strings containing the parsed task details.
-     * @param isDone A boolean flag indicating whether the task should be marked as done.
-     * @param isUserInput A boolean flag indicating whether the input originated from a user.
-     * @param ui The UI handler responsible for user feedback.
-     * @return An {@code Action} object corresponding to the given command.
-     * @throws TabbyExceptionIncompleteCommand If the command is missing required details.
-     * @throws TabbyExceptionInvalidTaskNumber If the task number is not a valid integer.
-     * @throws TabbyExceptionInvalidCommand If the command is unrecognized or invalid.
+     * @param arguments The reminder options, which are empty if none were given.
+     * @return A {@code RemindAction} object initialized with the given options, or an invalid reminder
+     *         error if the options are neither a positive count nor a time window.
      */
-    private static Action createAction(Command command, String[] parsedTask,
-                                       boolean isDone, boolean isUserInput, Ui ui)
-            throws TabbyExceptionIncompleteCommand, TabbyExceptionInvalidTaskNumber,
-            TabbyExceptionInvalidCommand {
+    private static ActionResult createRemindAction(String arguments) {
+        if (arguments.isEmpty()) {
+            return ActionResult.success(new RemindAction());
+        }
 
+        String options = arguments.toLowerCase();
+        if (options.startsWith("within ")) {
+            long windowSeconds = parseWindowSeconds(options.substring(7).trim());
+            if (windowSeconds == NOT_A_WINDOW) {
+                return ActionResult.INVALID_REMINDER;
+            }
+            return ActionResult.success(new RemindAction(Integer.MAX_VALUE, windowSeconds));
+        }
+        if (!isNumber(options, 0, options.length())) {
+            return ActionResult.INVALID_REMINDER;
+        }
         try {
-            return switch (command) {
-            case LIST -> new ListAction();
-            case REMINDER -> new RemindAction();
-            case FIND -> createFindAction(parsedTask);
-            case TODO, DEADLINE, EVENT -> createAddAction(parsedTask, isDone, isUserInput, ui);
-            case MARK, UNMARK, DELETE -> createTaskManagementAction(command, parsedTask);
-            default -> throw new TabbyExceptionInvalidCommand();
-            };
-        } catch (IllegalArgumentException e) {
-            throw new TabbyExceptionInvalidCommand();
+            int limit = Integer.parseInt(options);
+            if (limit > 0) {
+                return ActionResult.success(new RemindAction(limit, Long.MAX_VALUE));
+            }
+        } catch (NumberFormatException e) {
+            return ActionResult.INVALID_REMINDER;
         }
+        return ActionResult.INVALID_REMINDER;
     }
 
     /**
-     * Creates a {@code FindAction} based on the parsed task input.
+     * Parses a time window such as {@code 90m}, {@code 12h}, {@code 3d} or {@code 2w}.
      *
-     * @param parsedTask An array of strings containing the parsed user input.
-     *                   The second element is expected to be the search query.
-     * @return A {@code FindAction} object initialized with the search query.
-     * @throws TabbyExceptionIncompleteCommand If the search query is missing or empty.
+     * @param window The time window, a positive number followed by a unit.
+     * @return The length of the window in seconds, or {@code NOT_A_WINDOW} if the window is not a positive
+     *         number followed by a unit.
      */
-    private static Action createFindAction(String[] parsedTask)
-            throws TabbyExceptionIncompleteCommand {
-        if (parsedTask.length < 2) {
-            throw new TabbyExceptionIncompleteCommand();
+    private static long parseWindowSeconds(String window) {
+        if (window.length() < 2) {
+            return NOT_A_WINDOW;
         }
-
-        assert parsedTask.length < 2;
-
-        if (parsedTask[1].trim().isEmpty()) {
-            throw new TabbyExceptionIncompleteCommand();
+        long unitSeconds = switch (window.charAt(window.length() - 1)) {
+        case 'm' -> 60L;
+        case 'h' -> 60L * 60;
+        case 'd' -> 24L * 60 * 60;
+        case 'w' -> 7L * 24 * 60 * 60;
+        default -> NOT_A_WINDOW;
+        };
+        if (unitSeconds == NOT_A_WINDOW || !isNumber(window, 0, window.length() - 1)) {
+            return NOT_A_WINDOW;
+        }
+        try {
+            long amount = Long.parseLong(window, 0, window.length() - 1, 10);
+            if (amount <= 0 || amount > Long.MAX_VALUE / unitSeconds) {
+                return NOT_A_WINDOW;
+            }
+            return amount * unitSeconds;
+        } catch (NumberFormatException e) {
+            return NOT_A_WINDOW;
         }
-        return new FindAction(parsedTask[1].trim());
     }
 
     /**
      * Creates an {@code AddAction} based on the parsed task input.
      *
-     * @param parsedTask An array of strings representing the parsed user input.
-     *                   The second element is expected to contain task details.
+     * @param command The {@code Command} enum representing the type of task (TODO, DEADLINE, EVENT).
+     * @param arguments The task details.
      * @param isDone A boolean flag indicating whether the task should be marked as done.
      * @param isUserInput A boolean flag indicating whether the input originated from a user.
      * @param ui The UI handler responsible for user feedback.
-     * @return An {@code AddAction} object initialized with the given task details.
-     * @throws TabbyExceptionIncompleteCommand If the parsed task input is incomplete.
+     * @return An {@code AddAction} object initialized with the given task details, an incomplete command
+     *         error if there are none, or an invalid deadline or event error if the user typed one that
+     *         cannot be added, such as one with a malformed date.
      */
-    private static Action createAddAction(String[] parsedTask, boolean isDone,
-                                          boolean isUserInput, Ui ui) throws TabbyExceptionIncompleteCommand {
-        if (parsedTask.length < 2) {
-            throw new TabbyExceptionIncompleteCommand();
+    private static ActionResult createAddAction(Command command, String arguments, boolean isDone,
+                                                boolean isUserInput, Ui ui) {
+        if (arguments.isEmpty()) {
+            return ActionResult.INCOMPLETE_COMMAND;
+        }
+        // Dates typed by the user are checked here so that an invalid one is rejected without an exception
+        if (isUserInput && command == Command.DEADLINE) {
+            Parser.DeadlineDetails details = Parser.scanUserDeadline(arguments);
+            return details == null
+                    ? ActionResult.INVALID_DEADLINE
+                    : ActionResult.success(new AddAction(details, isDone, ui));
+        }
+        if (isUserInput && command == Command.EVENT) {
+            Parser.EventDetails details = Parser.scanUserEvent(arguments);
+            return details == null
+                    ? ActionResult.INVALID_EVENT
+                    : ActionResult.success(new AddAction(details, isDone, ui));
         }
-        assert parsedTask.length < 2;
-        return new AddAction(parsedTask, isDone, isUserInput, ui);
+        return ActionResult.success(new AddAction(command, arguments, isDone, isUserInput, ui));
     }
 
     /**
      * Creates an appropriate task {@code Action} based on the provided command.
      *
      * @param command The {@code Command} enum representing the user command (MARK, UNMARK, DELETE).
-     * @param parsedTask An array of strings containing the parsed user input.
-     *                   The second element is expected to be the task number.
-     * @return An {@code Action} object corresponding to the given command.
-     * @throws TabbyExceptionInvalidTaskNumber If the task number is invalid or out of range.
-     * @throws TabbyExceptionInvalidCommand If the command is not recognized.
+     * @param arguments The task number, {@code #} and the task ID, or a selection of several tasks such as
+     *                  {@code 3,7,9-20} or {@code done}.
+     * @return An {@code Action} object corresponding to the given command, or an invalid task number error
+     *         if the task number is missing, invalid or out of range.
      */
-    private static Action createTaskManagementAction(Command command, String[] parsedTask)
-            throws TabbyExceptionInvalidTaskNumber, TabbyExceptionInvalidCommand {
+    private static ActionResult createTaskManagementAction(Command command, String arguments) {
+        if (arguments.isEmpty()) {
+            return ActionResult.INVALID_TASK_NUMBER;
+        }
 
-        try {
-            validateTaskNumber(parsedTask);
-            int taskNumber = parseTaskNumber(parsedTask[1]);
-            validateTaskNumberRange(taskNumber);
+        if (arguments.charAt(0) == '#') {
+            long taskId = parseTaskId(arguments);
+            if (taskId == NOT_AN_ID) {
+                return ActionResult.INVALID_TASK_NUMBER;
+            }
+            return ActionResult.success(switch (command) {
+            case MARK -> new MarkAction(taskId);
+            case UNMARK -> new UnmarkAction(taskId);
+            default -> new DeleteAction(taskId);
+            });
+        }
 
-            return switch (command) {
+        int taskNumber = parseTaskNumber(arguments);
+        if (taskNumber >= 0) {
+            return ActionResult.success(switch (command) {
             case MARK -> new MarkAction(taskNumber);
             case UNMARK -> new UnmarkAction(taskNumber);
-            case DELETE -> new DeleteAction(taskNumber);
-            default -> throw new TabbyExceptionInvalidCommand();
-            };
-        } catch (IllegalArgumentException e) {
-            throw new TabbyExceptionInvalidCommand();
+            default -> new DeleteAction(taskNumber);
+            });
+        }
+
+        TaskSelection selection = parseTaskSelection(arguments);
+        if (selection == null) {
+            return ActionResult.INVALID_TASK_NUMBER;
         }
+        return ActionResult.success(switch (command) {
+        case MARK -> new MarkAction(selection);
+        case UNMARK -> new UnmarkAction(selection);
+        default -> new DeleteAction(selection);
+        });
     }
 
     /**
-     * Validates the task number in the parsed task array.
-     * @param parsedTask An array of strings representing the parsed user input.
-     *                   The second element is expected to be the task number.
-     * @throws TabbyExceptionInvalidTaskNumber If the task number is missing or empty.
+     * Parses a selection of several tasks: {@code all}, {@code done}, {@code undone}, or task numbers and
+     * ranges of task numbers separated by commas, such as {@code 3,7,9-20}.
+     *
+     * @param selectionStr The string representing the selection.
+     * @return The selected tasks, or null if the string is not a valid selection.
      */
-    private static void validateTaskNumber(String[] parsedTask)
-            throws TabbyExceptionInvalidTaskNumber {
-        if (parsedTask.length < 2) {
-            throw new TabbyExceptionInvalidTaskNumber();
-        }
-        assert parsedTask.length < 2;
-        if (parsedTask[1].trim().isEmpty()) {
-            throw new TabbyExceptionInvalidTaskNumber();
+    private static TaskSelection parseTaskSelection(String selectionStr) {
+        TaskSelection byStatus = switch (selectionStr.toLowerCase()) {
+        case "all" -> TaskSelection.ALL;
+        case "done" -> TaskSelection.DONE;
+        case "undone" -> TaskSelection.NOT_DONE;
+        default -> null;
+        };
+        if (byStatus != null) {
+            return byStatus;
         }
 
+        int rangeCount = 1;
+        for (int i = 0; i < selectionStr.length(); i++) {
+            if (selectionStr.charAt(i) == ',') {
+                rangeCount++;
+            }
+        }
+        int[] starts = new int[rangeCount];
+        int[] ends = new int[rangeCount];
+        int start = 0;
+        for (int i = 0; i < rangeCount; i++) {
+            int end = selectionStr.indexOf(',', start);
+            end = end < 0 ? selectionStr.length() : end;
+            // A dash at the start of a range is a minus sign, which no task number has
+            int dash = selectionStr.indexOf('-', start + 1);
+            dash = dash < 0 || dash >= end ? end : dash;
+            int first = parsePositiveNumber(selectionStr, start, dash);
+            int last = dash == end ? first : parsePositiveNumber(selectionStr, dash + 1, end);
+            if (first <= 0 || last < first) {
+                return null;
+            }
+            starts[i] = first - 1;
+            ends[i] = last;
+            start = end + 1;
+        }
+        return TaskSelection.ofRanges(starts, ends);
     }
 
     /**
-     * Validates that the task number is within an acceptable range.
+     * Parses a positive number from part of a string, ignoring spaces around it.
      *
-     * @param taskNumber The task number to be validated.
-     * @throws TabbyExceptionInvalidTaskNumber If the task number is negative.
+     * @param text  The text holding the number.
+     * @param start The index the number starts at, possibly after spaces.
+     * @param end   The index the number ends at, possibly after spaces.
+     * @return The number, or -1 if it is not a positive integer.
      */
-    private static void validateTaskNumberRange(int taskNumber)
-            throws TabbyExceptionInvalidTaskNumber {
-        if (taskNumber < 0) {
-            throw new TabbyExceptionInvalidTaskNumber();
+    private static int parsePositiveNumber(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (!isNumber(text, start, end)) {
+            return -1;
+        }
+        try {
+            return Math.max(Integer.parseInt(text, start, end, 10), -1);
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
@@ -234,16 +346,64 @@ public abstract class Action {
      * Parses the given string into a task number.
      *
      * @param numberStr The string representing the task number.
-     * @return The parsed task number, adjusted to be zero-based.
-     * @throws TabbyExceptionInvalidTaskNumber If the string is not a valid integer.
+     * @return The parsed task number, adjusted to be zero-based, or -1 if the string is not a valid integer.
      */
-    private static int parseTaskNumber(String numberStr)
-            throws TabbyExceptionInvalidTaskNumber {
+    private static int parseTaskNumber(String numberStr) {
+        if (!isNumber(numberStr, 0, numberStr.length())) {
+            return -1;
+        }
         try {
-            return Integer.parseInt(numberStr.trim()) - 1;
+            return Integer.parseInt(numberStr) - 1;
         } catch (NumberFormatException e) {
-            throw new TabbyExceptionInvalidTaskNumber();
+            return -1;
+        }
+    }
+
+    /**
+     * Parses the given string into a task ID.
+     *
+     * @param idStr The string representing the task ID, with the leading {@code #}.
+     * @return The parsed task ID, or {@code NOT_AN_ID} if the string is not a positive integer after the
+     *         {@code #}.
+     */
+    private static long parseTaskId(String idStr) {
+        int start = 1;
+        while (start < idStr.length() && idStr.charAt(start) <= ' ') {
+            start++;
+        }
+        if (!isNumber(idStr, start, idStr.length())) {
+            return NOT_AN_ID;
+        }
+        try {
+            return Math.max(Long.parseLong(idStr, start, idStr.length(), 10), NOT_AN_ID);
+        } catch (NumberFormatException e) {
+            return NOT_AN_ID;
+        }
+    }
+
+    /**
+     * Checks that text has the form of an integer, an optional sign followed by digits, so that text which
+     * is plainly not a number is rejected without the cost of a {@code NumberFormatException}. A number of
+     * that form may still be too large to parse.
+     *
+     * @param text  The text holding the number.
+     * @param start The index of the first character of the number.
+     * @param end   The index after the last character of the number.
+     * @return true if the text has the form of an integer.
+     */
+    private static boolean isNumber(String text, int start, int end) {
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            start++;
+        }
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (Character.digit(text.charAt(i), 10) < 0) {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
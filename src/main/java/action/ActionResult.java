@@ -0,0 +1,55 @@
+package action;
+
+import exceptions.TabbyException;
+import exceptions.TabbyExceptionIncompleteCommand;
+import exceptions.TabbyExceptionInvalidCommand;
+import exceptions.TabbyExceptionInvalidDeadlineInput;
+import exceptions.TabbyExceptionInvalidEventInput;
+import exceptions.TabbyExceptionInvalidReminder;
+import exceptions.TabbyExceptionInvalidTaskNumber;
+
+/**
+ * The outcome of reading a command: either the action to run or the error that makes the command invalid.
+ * The errors found while reading a command always have the same message, so each is created once and
+ * shared, which the exceptions allow since they carry no stack trace.
+ *
+ * @param action The action to run, or null if the command is invalid.
+ * @param error  The error describing why the command is invalid, or null if it is valid.
+ */
+public record ActionResult(Action action, TabbyException error) {
+    static final ActionResult INVALID_COMMAND = failure(new TabbyExceptionInvalidCommand());
+    static final ActionResult INCOMPLETE_COMMAND = failure(new TabbyExceptionIncompleteCommand());
+    static final ActionResult INVALID_TASK_NUMBER = failure(new TabbyExceptionInvalidTaskNumber());
+    static final ActionResult INVALID_REMINDER = failure(new TabbyExceptionInvalidReminder());
+    static final ActionResult INVALID_DEADLINE = failure(new TabbyExceptionInvalidDeadlineInput());
+    static final ActionResult INVALID_EVENT = failure(new TabbyExceptionInvalidEventInput());
+
+    /**
+     * Creates the result of a valid command.
+     *
+     * @param action The action to run.
+     * @return The result holding the action.
+     */
+    static ActionResult success(Action action) {
+        return new ActionResult(action, null);
+    }
+
+    /**
+     * Creates the result of an invalid command.
+     *
+     * @param error The error describing why the command is invalid.
+     * @return The result holding the error.
+     */
+    static ActionResult failure(TabbyException error) {
+        return new ActionResult(null, error);
+    }
+
+    /**
+     * Returns whether the command is valid.
+     *
+     * @return true if the result holds an action to run.
+     */
+    public boolean isSuccess() {
+        return action != null;
+    }
+}
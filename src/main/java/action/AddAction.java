@@ -1,7 +1,5 @@
 package action;
 
-import java.util.HashMap;
-
 import exceptions.TabbyExceptionIncompleteCommand;
 import exceptions.TabbyExceptionInvalidCommand;
 import exceptions.TabbyExceptionInvalidDeadlineInput;
@@ -18,30 +16,65 @@ import task.ToDo;
  * This class processes user input to create appropriate task types and adds them to the task manager.
  */
 public class AddAction extends Action {
-    private final String[] input;
+    private final Command command;
+    private final String description;
     private final boolean isDone;
     private final boolean isUserInput;
     private final Ui ui;
-
-    private enum Command {
-        TODO,
-        DEADLINE,
-        EVENT
-    }
+    private final Parser.DeadlineDetails deadlineDetails;
+    private final Parser.EventDetails eventDetails;
 
     /**
      * Constructs an AddAction with the specified user input.
      *
-     * @param input The task input string to be processed.
+     * @param command The type of task to add: TODO, DEADLINE or EVENT.
+     * @param description The task details typed after the command.
      * @param isDone Indicates whether the task is done.
      * @param isUserInput Indicates whether the input comes from the user.
      * @param ui The UI handler for user feedback.
      */
-    public AddAction(String[] input, boolean isDone, boolean isUserInput, Ui ui) {
-        this.input = input;
+    AddAction(Command command, String description, boolean isDone, boolean isUserInput, Ui ui) {
+        this.command = command;
+        this.description = description;
         this.isDone = isDone;
         this.isUserInput = isUserInput;
         this.ui = ui;
+        this.deadlineDetails = null;
+        this.eventDetails = null;
+    }
+
+    /**
+     * Constructs an AddAction for a deadline the user typed, which was parsed and checked already.
+     *
+     * @param details The description and deadline of the task.
+     * @param isDone Indicates whether the task is done.
+     * @param ui The UI handler for user feedback.
+     */
+    AddAction(Parser.DeadlineDetails details, boolean isDone, Ui ui) {
+        this.command = Command.DEADLINE;
+        this.description = details.description();
+        this.isDone = isDone;
+        this.isUserInput = true;
+        this.ui = ui;
+        this.deadlineDetails = details;
+        this.eventDetails = null;
+    }
+
+    /**
+     * Constructs an AddAction for an event the user typed, which was parsed and checked already.
+     *
+     * @param details The description, start and end times of the task.
+     * @param isDone Indicates whether the task is done.
+     * @param ui The UI handler for user feedback.
+     */
+    AddAction(Parser.EventDetails details, boolean isDone, Ui ui) {
+        this.command = Command.EVENT;
+        this.description = details.description();
+        this.isDone = isDone;
+        this.isUserInput = true;
+        this.ui = ui;
+        this.deadlineDetails = null;
+        this.eventDetails = details;
     }
 
     /**
@@ -57,33 +90,16 @@ public class AddAction extends Action {
     public String runTask(TaskManager taskManager) throws TabbyExceptionInvalidCommand,
             TabbyExceptionIncompleteCommand, TabbyExceptionInvalidTodo {
 
-        assert input.length >= 2;
-
-        if (Parser.validateInput(input[1])) {
+        if (Parser.validateInput(description)) {
             throw new TabbyExceptionIncompleteCommand();
         }
 
-        Command command;
-        try {
-            command = Command.valueOf(input[0].toUpperCase());
-            String taskDescription = input[1];
-            switch (command) {
-            case TODO -> {
-                return addTodoTask(taskManager, taskDescription);
-            }
-            case DEADLINE -> {
-                return addDeadlineTask(taskManager, taskDescription);
-            }
-            case EVENT -> {
-                return addEventTask(taskManager, taskDescription);
-            }
-            default -> throw new TabbyExceptionInvalidCommand();
-            }
-        } catch (IllegalArgumentException e) {
-            throw new TabbyExceptionInvalidCommand();
-        }
-
-
+        return switch (command) {
+        case TODO -> addTodoTask(taskManager, description);
+        case DEADLINE -> addDeadlineTask(taskManager, description);
+        case EVENT -> addEventTask(taskManager, description);
+        default -> throw new TabbyExceptionInvalidCommand();
+        };
     }
 
     /**
@@ -112,8 +128,10 @@ public class AddAction extends Action {
      */
     private String addDeadlineTask(TaskManager taskManager, String description) {
         try {
-            HashMap<String, String> deadlineDetails = Parser.parseDeadline(description, isUserInput);
-            Deadline task = new Deadline(deadlineDetails.get("description"), isDone, deadlineDetails.get("by"));
+            Parser.DeadlineDetails details = deadlineDetails != null
+                    ? deadlineDetails
+                    : Parser.parseDeadline(description, isUserInput);
+            Deadline task = new Deadline(details.description(), isDone, details.by());
             taskManager.addTask(task);
             return isUserInput ? taskManager.taskResponse("added", task) : "";
         } catch (TabbyExceptionInvalidDeadlineInput e) {
@@ -130,9 +148,10 @@ public class AddAction extends Action {
      */
     private String addEventTask(TaskManager taskManager, String description) {
         try {
-            HashMap<String, String> eventDetails = Parser.parseEvent(description, isUserInput);
-            Event task = new Event(eventDetails.get("description"), isDone, eventDetails.get("from"),
-                    eventDetails.get("to"));
+            Parser.EventDetails details = eventDetails != null
+                    ? eventDetails
+                    : Parser.parseEvent(description, isUserInput);
+            Event task = new Event(details.description(), isDone, details.from(), details.to());
             taskManager.addTask(task);
             return isUserInput ? taskManager.taskResponse("added", task) : "";
         } catch (TabbyExceptionInvalidEventInput e) {
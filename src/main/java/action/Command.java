@@ -0,0 +1,54 @@
+package action;
+
+/**
+ * The commands a user can type, each recognised by its keyword.
+ */
+enum Command {
+    LIST("list"),
+    MARK("mark"),
+    UNMARK("unmark"),
+    DELETE("delete"),
+    TODO("todo"),
+    DEADLINE("deadline"),
+    EVENT("event"),
+    FIND("find"),
+    FUZZY_FIND("find~"),
+    SEARCH("search"),
+    REMINDER("reminder"),
+    STATS("stats");
+
+    private static final Command[] COMMANDS = values();
+
+    private final String keyword;
+
+    Command(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Finds the command whose keyword is the given part of the input, ignoring case, without copying it.
+     *
+     * @param input The input holding the keyword.
+     * @param start The index of the first character of the keyword.
+     * @param end   The index after the last character of the keyword.
+     * @return The command, or null if no command has that keyword.
+     */
+    static Command lookUp(String input, int start, int end) {
+        int length = end - start;
+        for (Command command : COMMANDS) {
+            if (command.keyword.length() == length && command.keyword.regionMatches(true, 0, input, start, length)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the command may be typed on its own, without arguments.
+     *
+     * @return true for the commands that take no arguments or only optional ones.
+     */
+    boolean canStandAlone() {
+        return this == LIST || this == REMINDER || this == STATS;
+    }
+}
@@ -1,10 +1,13 @@
 package action;
 import task.TaskManager;
+import task.TaskSelection;
 /**
  * An action that deletes a task
  */
 public class DeleteAction extends Action {
     private final int taskNumber;
+    private final long taskId;
+    private final TaskSelection selection;
 
     /**
      * Constructs a DeleteAction with the specified task number.
@@ -14,6 +17,30 @@ public class DeleteAction extends Action {
     public DeleteAction(int taskNumber) {
 
         this.taskNumber = taskNumber;
+        this.taskId = 0;
+        this.selection = null;
+    }
+
+    /**
+     * Constructs a DeleteAction for the task with the specified ID.
+     *
+     * @param taskId The ID of the task to be deleted.
+     */
+    public DeleteAction(long taskId) {
+        this.taskNumber = -1;
+        this.taskId = taskId;
+        this.selection = null;
+    }
+
+    /**
+     * Constructs a DeleteAction for several tasks, which are deleted together and saved once.
+     *
+     * @param selection The tasks to be deleted.
+     */
+    public DeleteAction(TaskSelection selection) {
+        this.taskNumber = -1;
+        this.taskId = 0;
+        this.selection = selection;
     }
 
     /**
@@ -23,6 +50,9 @@ public class DeleteAction extends Action {
      */
     @Override
     public String runTask(TaskManager taskManager) {
-        return taskManager.deleteTask(taskNumber);
+        if (selection != null) {
+            return taskManager.deleteTasks(selection);
+        }
+        return taskId != 0 ? taskManager.deleteTaskById(taskId) : taskManager.deleteTask(taskNumber);
     }
 }
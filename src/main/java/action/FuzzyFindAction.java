@@ -0,0 +1,27 @@
+package action;
+import task.TaskManager;
+/**
+ * An action that finds tasks by keywords that may be misspelled
+ */
+public class FuzzyFindAction extends Action {
+    private final String query;
+
+    /**
+     * Constructs a FuzzyFindAction with the specified query.
+     *
+     * @param query The keywords to match tasks, possibly misspelled
+     */
+    public FuzzyFindAction(String query) {
+        this.query = query;
+    }
+
+    /**
+     * Executes the action to find tasks close to the keywords
+     *
+     * @param taskManager The TaskManager to operate on.
+     */
+    @Override
+    public String runTask(TaskManager taskManager) {
+        return taskManager.fuzzyFindTask(query);
+    }
+}
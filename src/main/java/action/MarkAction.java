@@ -1,10 +1,13 @@
 package action;
 import task.TaskManager;
+import task.TaskSelection;
 /**
  * An action that marks a task as done.
  */
 public class MarkAction extends Action {
     private final int taskNumber;
+    private final long taskId;
+    private final TaskSelection selection;
 
     /**
      * Constructs a MarkAction with the specified task number.
@@ -13,6 +16,30 @@ public class MarkAction extends Action {
      */
     public MarkAction(int taskNumber) {
         this.taskNumber = taskNumber;
+        this.taskId = 0;
+        this.selection = null;
+    }
+
+    /**
+     * Constructs a MarkAction for the task with the specified ID.
+     *
+     * @param taskId The ID of the task to be marked as done.
+     */
+    public MarkAction(long taskId) {
+        this.taskNumber = -1;
+        this.taskId = taskId;
+        this.selection = null;
+    }
+
+    /**
+     * Constructs a MarkAction for several tasks, which are changed together and saved once.
+     *
+     * @param selection The tasks to be marked as done.
+     */
+    public MarkAction(TaskSelection selection) {
+        this.taskNumber = -1;
+        this.taskId = 0;
+        this.selection = selection;
     }
 
     /**
@@ -22,6 +49,9 @@ public class MarkAction extends Action {
      */
     @Override
     public String runTask(TaskManager taskManager) {
-        return taskManager.markTaskDone(taskNumber);
+        if (selection != null) {
+            return taskManager.markTasksDone(selection);
+        }
+        return taskId != 0 ? taskManager.markTaskDoneById(taskId) : taskManager.markTaskDone(taskNumber);
     }
 }
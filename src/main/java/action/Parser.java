@@ -1,16 +1,16 @@
 package action;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import exceptions.TabbyExceptionIncompleteCommand;
-import exceptions.TabbyExceptionInvalidCommand;
 import exceptions.TabbyExceptionInvalidDeadlineInput;
 import exceptions.TabbyExceptionInvalidEventInput;
+import task.TaskTime;
 
 /**
  * The Parser class is responsible for handling user and file input parsing.
@@ -18,20 +18,13 @@ import exceptions.TabbyExceptionInvalidEventInput;
  */
 public class Parser {
 
-    // User input patterns
-    private static final Pattern DEADLINE_USER_INPUT_PATTERN = Pattern.compile("(.+?)\\s*/by\\s*(.+)");
-    private static final Pattern EVENT_USER_INPUT_PATTERN =
-            Pattern.compile("(.+?)\\s*/from\\s*(.+?)\\s*/to\\s*(.+)");
-
     // File input patterns
     private static final Pattern DEADLINE_FILE_INPUT_PATTERN = Pattern.compile("(.+?)\\s*\\(by:\\s*(.+?)\\)");
     private static final Pattern EVENT_FILE_INPUT_PATTERN =
             Pattern.compile("(.+?)\\s*\\(from:\\s*(.+?)\\s*to:\\s*(.+?)\\)");
-    private static final Pattern FILE_INPUT_TASK_PATTERN = Pattern.compile("^\\[(T|E|D)\\]\\[(X| )\\]\\s*(.*)$");
 
-    // Date formatters
-    private static final DateTimeFormatter USER_INPUT_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy HHmm");
-    private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a");
+    // Returned by parseUserDateTime for text that is not a date and time
+    private static final long NOT_A_TIME = Long.MIN_VALUE;
 
     /**
      * Validates if the input is null or empty.
@@ -44,62 +37,88 @@ public class Parser {
     }
 
     /**
-     * Parses the task details from the file input.
+     * Parses the task details from a line of the task file, such as {@code [D][X] return book (by: ...)}.
      *
      * @param input The input string from the file.
-     * @return A HashMap containing task details.
+     * @return The type, status and description of the task, or null if the line is not a task.
      */
-    public static HashMap<String, String> parseFileRead(String input) {
-        Matcher matcher = FILE_INPUT_TASK_PATTERN.matcher(input);
-        HashMap<String, String> taskDetails = new HashMap<>();
-
-        if (matcher.matches()) {
-            switch (matcher.group(1)) {
-            case "T":
-                taskDetails.put("task", "todo");
-                break;
-            case "D":
-                taskDetails.put("task", "deadline");
-                break;
-            case "E":
-                taskDetails.put("task", "event");
-                break;
-            default:
-                break;
-            }
-            taskDetails.put("status", matcher.group(2).equals("X") ? "true" : "false");
-            taskDetails.put("description", matcher.group(3));
+    public static TaskLine parseFileRead(String input) {
+        if (input.length() < 6 || input.charAt(0) != '[' || input.charAt(2) != ']' || input.charAt(3) != '['
+                || input.charAt(5) != ']') {
+            return null;
         }
-
-        return taskDetails;
+        char type = input.charAt(1);
+        char status = input.charAt(4);
+        if (type != 'T' && type != 'D' && type != 'E' || status != 'X' && status != ' ') {
+            return null;
+        }
+        return new TaskLine(type, status == 'X', input.substring(skipSpaces(input, 6, input.length())));
     }
 
     /**
-     * Parses the user input and returns the parsed task components.
+     * Splits the user input into its command and the arguments after it in a single pass, without
+     * splitting the input into an array or looking the command up by name. Nothing is thrown for input
+     * that is not a valid command, so that the caller can report it cheaply.
      *
      * @param input The user input string.
-     * @return An array containing the parsed command and arguments.
-     * @throws TabbyExceptionInvalidCommand If the command is invalid.
-     * @throws TabbyExceptionIncompleteCommand If the command is incomplete.
+     * @return The command and its arguments, trimmed, which are empty for a command typed on its own, or
+     *         null if the input is empty. The command is null if the first word is not a command.
      */
-    public static String[] parseTask(String input) throws TabbyExceptionInvalidCommand,
-            TabbyExceptionIncompleteCommand {
-
-        String trimmedInput = input.trim();
-        if (validateInput(trimmedInput)) {
-            throw new TabbyExceptionInvalidCommand();
+    static CommandLine scanCommand(String input) {
+        if (input == null) {
+            return null;
         }
-
-        if (trimmedInput.equalsIgnoreCase("list") || trimmedInput.equalsIgnoreCase("reminder")) {
-            return new String[]{trimmedInput};
+        int end = trimEnd(input, 0, input.length());
+        int start = skipSpaces(input, 0, end);
+        if (start == end) {
+            return null;
         }
 
-        String[] tokens = trimmedInput.split("\\s+", 2);
+        int wordEnd = start;
+        while (wordEnd < end && !isWhitespace(input.charAt(wordEnd))) {
+            wordEnd++;
+        }
+        Command command = Command.lookUp(input, start, wordEnd);
+        if (wordEnd == end) {
+            return new CommandLine(command, "");
+        }
+        return new CommandLine(command, input.substring(skipSpaces(input, wordEnd, end), end));
+    }
 
-        if (tokens.length < 2) {
-            throw new TabbyExceptionIncompleteCommand();
+    /**
+     * Splits input holding several commands into the commands. A line break or {@code ;} always ends a
+     * command, and {@code \;} stands for a {@code ;} that is part of the command, such as
+     * {@code todo buy milk\; eggs}. Empty commands are left out.
+     *
+     * @param input The user input, such as {@code todo walk dog; mark 1} or several pasted lines.
+     * @return The commands in the order given.
+     */
+    public static List<String> splitCommands(String input) {
+        List<String> commands = new ArrayList<>();
+        // Only built for a command holding an escaped semicolon
+        StringBuilder unescaped = null;
+        int start = 0;
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i == input.length() ? '\n' : input.charAt(i);
+            if (c == '\\' && i + 1 < input.length() && input.charAt(i + 1) == ';') {
+                if (unescaped == null) {
+                    unescaped = new StringBuilder();
+                }
+                unescaped.append(input, start, i).append(';');
+                start = i + 2;
+                i++;
+            } else if (c == '\n' || c == '\r' || c == ';') {
+                String command = unescaped == null
+                        ? trimmed(input, start, i)
+                        : unescaped.append(input, start, i).toString().trim();
+                if (!command.isEmpty()) {
+                    commands.add(command);
+                }
+                unescaped = null;
+                start = i + 1;
+            }
         }
-        return new String[]{tokens[0].trim(), tokens[1].trim()};
+        return commands;
     }
 
     /**
@@ -107,79 +126,240 @@ public class Parser {
      *
      * @param input The input string.
      * @param isUserInput Whether the input is from a user or a file.
-     * @return A HashMap containing deadline details.
+     * @return The description and deadline of the task.
      * @throws TabbyExceptionInvalidDeadlineInput If the input format is incorrect.
      */
-    public static HashMap<String, String> parseDeadline(String input, boolean isUserInput)
+    public static DeadlineDetails parseDeadline(String input, boolean isUserInput)
             throws TabbyExceptionInvalidDeadlineInput {
-        Pattern pattern = isUserInput ? DEADLINE_USER_INPUT_PATTERN : DEADLINE_FILE_INPUT_PATTERN;
-        Matcher matcher = pattern.matcher(input);
+        if (isUserInput) {
+            return parseUserDeadline(input);
+        }
+        Matcher matcher = DEADLINE_FILE_INPUT_PATTERN.matcher(input);
 
         if (!matcher.matches()) {
             throw new TabbyExceptionInvalidDeadlineInput();
         }
 
-        HashMap<String, String> deadlineDetails = new HashMap<>();
         String description = matcher.group(1).trim();
         String dateTimeStr = matcher.group(2).trim();
 
         try {
-            deadlineDetails.put("description", description);
-
-            if (isUserInput) {
-                LocalDateTime deadline = LocalDateTime.parse(dateTimeStr, USER_INPUT_FORMATTER);
-                if (!deadline.isAfter(LocalDateTime.now())) {
-                    throw new TabbyExceptionInvalidDeadlineInput();
-                }
-                deadlineDetails.put("by", deadline.format(OUTPUT_FORMATTER));
-            } else {
-                deadlineDetails.put("by", dateTimeStr);
-            }
-
-            return deadlineDetails;
+            return new DeadlineDetails(description, TaskTime.toEpochSecond(dateTimeStr));
         } catch (DateTimeParseException e) {
             throw new TabbyExceptionInvalidDeadlineInput();
         }
     }
 
+    /**
+     * Parses a deadline typed by the user like {@link #scanUserDeadline}, but throws if it is invalid.
+     */
+    private static DeadlineDetails parseUserDeadline(String input) throws TabbyExceptionInvalidDeadlineInput {
+        DeadlineDetails details = scanUserDeadline(input);
+        if (details == null) {
+            throw new TabbyExceptionInvalidDeadlineInput();
+        }
+        return details;
+    }
+
+    /**
+     * Reads a deadline typed by the user, such as {@code return book /by 2/12/2025 1800}, by scanning
+     * for {@code /by} instead of matching a pattern. Nothing is thrown for an invalid deadline, so that
+     * it costs no more to reject than a valid one costs to read.
+     *
+     * @param input The text typed after the command.
+     * @return The description and deadline, or {@code null} if either is missing, the date is not in the
+     *         form {@code d/M/yyyy HHmm}, or the deadline has passed.
+     */
+    static DeadlineDetails scanUserDeadline(String input) {
+        // The description must not be empty and something must follow /by
+        int by = input.indexOf("/by", 1);
+        if (by < 0 || by + 3 >= input.length()) {
+            return null;
+        }
+
+        long deadline = parseUserDateTime(input, by + 3, input.length());
+        if (deadline == NOT_A_TIME || deadline <= TaskTime.now()) {
+            return null;
+        }
+        return new DeadlineDetails(trimmed(input, 0, by), deadline);
+    }
+
     /**
      * Parses an event task input.
      *
      * @param input The input string.
      * @param isUserInput Whether the input is from a user or a file.
-     * @return A HashMap containing event details.
+     * @return The description, start and end times of the event.
      * @throws TabbyExceptionInvalidEventInput If the input format is incorrect.
      */
-    public static HashMap<String, String> parseEvent(String input, boolean isUserInput)
+    public static EventDetails parseEvent(String input, boolean isUserInput)
             throws TabbyExceptionInvalidEventInput {
-        Pattern pattern = isUserInput ? EVENT_USER_INPUT_PATTERN : EVENT_FILE_INPUT_PATTERN;
-        Matcher matcher = pattern.matcher(input);
+        if (isUserInput) {
+            return parseUserEvent(input);
+        }
+        Matcher matcher = EVENT_FILE_INPUT_PATTERN.matcher(input);
         if (!matcher.matches()) {
             throw new TabbyExceptionInvalidEventInput();
         }
-        HashMap<String, String> eventDetails = new HashMap<>();
         String description = matcher.group(1).trim();
         String fromTimeStr = matcher.group(2).trim();
         String toTimeStr = matcher.group(3).trim();
         try {
-            eventDetails.put("description", description);
-            if (isUserInput) {
-                LocalDateTime fromTime = LocalDateTime.parse(fromTimeStr, USER_INPUT_FORMATTER);
-                LocalDateTime toTime = LocalDateTime.parse(toTimeStr, USER_INPUT_FORMATTER);
-                if (toTime.isBefore(fromTime) || !toTime.isAfter(LocalDateTime.now())
-                        || !fromTime.isAfter(LocalDateTime.now())) {
-                    throw new TabbyExceptionInvalidEventInput();
-                }
-                eventDetails.put("from", fromTime.format(OUTPUT_FORMATTER));
-                eventDetails.put("to", toTime.format(OUTPUT_FORMATTER));
-            } else {
-                eventDetails.put("from", fromTimeStr);
-                eventDetails.put("to", toTimeStr);
-            }
-            return eventDetails;
-
+            return new EventDetails(description, TaskTime.toEpochSecond(fromTimeStr),
+                    TaskTime.toEpochSecond(toTimeStr));
         } catch (DateTimeParseException e) {
             throw new TabbyExceptionInvalidEventInput();
         }
     }
+
+    /**
+     * Parses an event typed by the user like {@link #scanUserEvent}, but throws if it is invalid.
+     */
+    private static EventDetails parseUserEvent(String input) throws TabbyExceptionInvalidEventInput {
+        EventDetails details = scanUserEvent(input);
+        if (details == null) {
+            throw new TabbyExceptionInvalidEventInput();
+        }
+        return details;
+    }
+
+    /**
+     * Reads an event typed by the user, such as {@code meeting /from 2/12/2025 1800 /to 2/12/2025 2000},
+     * by scanning for {@code /from} and {@code /to} instead of matching a pattern. Nothing is thrown for an
+     * invalid event.
+     *
+     * @param input The text typed after the command.
+     * @return The description, start and end times, or {@code null} if any is missing, a time is not in the
+     *         form {@code d/M/yyyy HHmm}, the event ends before it starts, or it has started already.
+     */
+    static EventDetails scanUserEvent(String input) {
+        int from = input.indexOf("/from", 1);
+        if (from < 0) {
+            return null;
+        }
+        // The start time must not be empty and something must follow /to
+        int fromTimeStart = skipSpaces(input, from + 5, input.length());
+        int to = input.indexOf("/to", fromTimeStart + 1);
+        if (to < 0 || to + 3 >= input.length()) {
+            return null;
+        }
+
+        long fromTime = parseUserDateTime(input, fromTimeStart, to);
+        long toTime = parseUserDateTime(input, to + 3, input.length());
+        long now = TaskTime.now();
+        if (fromTime == NOT_A_TIME || toTime == NOT_A_TIME || toTime < fromTime || toTime <= now
+                || fromTime <= now) {
+            return null;
+        }
+        return new EventDetails(trimmed(input, 0, from), fromTime, toTime);
+    }
+
+    /**
+     * Reads a date and time typed by the user in the form {@code d/M/yyyy HHmm} digit by digit. A day past
+     * the end of its month, such as the 30th of February, is moved back to the last day of the month, as the
+     * formatter for this form used to do.
+     *
+     * @param input The input holding the date and time.
+     * @param start The index the date and time start at, possibly after spaces.
+     * @param end   The index the date and time end at, possibly after spaces.
+     * @return The date and time in epoch seconds, or {@code NOT_A_TIME} if the text is not in that form.
+     */
+    private static long parseUserDateTime(String input, int start, int end) {
+        end = trimEnd(input, start, end);
+        start = skipSpaces(input, start, end);
+
+        int daySlash = input.indexOf('/', start);
+        int monthSlash = daySlash < 0 ? -1 : input.indexOf('/', daySlash + 1);
+        int dayLength = daySlash - start;
+        int monthLength = monthSlash - daySlash - 1;
+        // yyyy HHmm
+        if (monthSlash < 0 || dayLength < 1 || dayLength > 2 || monthLength < 1 || monthLength > 2
+                || end - monthSlash != 10 || input.charAt(monthSlash + 5) != ' ') {
+            return NOT_A_TIME;
+        }
+        int day = digits(input, start, daySlash);
+        int month = digits(input, daySlash + 1, monthSlash);
+        int year = digits(input, monthSlash + 1, monthSlash + 5);
+        int hour = digits(input, monthSlash + 6, monthSlash + 8);
+        int minute = digits(input, monthSlash + 8, end);
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 1 || hour < 0 || hour > 23 || minute < 0
+                || minute > 59) {
+            return NOT_A_TIME;
+        }
+        day = Math.min(day, YearMonth.of(year, month).lengthOfMonth());
+        return LocalDate.of(year, month, day).toEpochDay() * 86_400 + (hour * 60 + minute) * 60;
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static String trimmed(String text, int start, int end) {
+        end = trimEnd(text, start, end);
+        return text.substring(skipSpaces(text, start, end), end);
+    }
+
+    private static int skipSpaces(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * A command typed by the user and the arguments after it.
+     *
+     * @param command   The command, or null if the first word is not a command.
+     * @param arguments The trimmed text after the command, which is empty if there is none.
+     */
+    record CommandLine(Command command, String arguments) {
+    }
+
+    /**
+     * The parts of a line of the task file.
+     *
+     * @param type        The type of the task: {@code T}, {@code D} or {@code E}.
+     * @param isDone      Whether the task is done.
+     * @param description The rest of the line, which holds the description and any times.
+     */
+    public record TaskLine(char type, boolean isDone, String description) {
+    }
+
+    /**
+     * The parts of a deadline task.
+     *
+     * @param description The description of the task.
+     * @param by          The deadline, in epoch seconds.
+     */
+    public record DeadlineDetails(String description, long by) {
+    }
+
+    /**
+     * The parts of an event task.
+     *
+     * @param description The description of the event.
+     * @param from        The start time, in epoch seconds.
+     * @param to          The end time, in epoch seconds.
+     */
+    public record EventDetails(String description, long from, long to) {
+    }
 }
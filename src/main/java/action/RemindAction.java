@@ -5,14 +5,34 @@ import task.TaskManager;
  */
 
 public class RemindAction extends Action {
+    private final int limit;
+    private final long windowSeconds;
 
     /**
-     * Executes the action to mark a task as done.
+     * Constructs a RemindAction that lists every deadline and event that is not done.
+     */
+    public RemindAction() {
+        this(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a RemindAction that lists the next deadlines and events due within a time window.
+     *
+     * @param limit         The maximum number of tasks to list.
+     * @param windowSeconds How far ahead to look, in seconds.
+     */
+    public RemindAction(int limit, long windowSeconds) {
+        this.limit = limit;
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * Executes the action to list the deadlines and events that are not done yet.
      *
      * @param taskManager The TaskManager to operate on.
      */
     @Override
     public String runTask(TaskManager taskManager) {
-        return taskManager.remind();
+        return taskManager.remind(limit, windowSeconds);
     }
 }
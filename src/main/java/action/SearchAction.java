@@ -0,0 +1,27 @@
+package action;
+import task.TaskManager;
+/**
+ * An action that finds tasks containing all the given words
+ */
+public class SearchAction extends Action {
+    private final String query;
+
+    /**
+     * Constructs a SearchAction with the specified query.
+     *
+     * @param query The words to match tasks, with or between alternatives
+     */
+    public SearchAction(String query) {
+        this.query = query;
+    }
+
+    /**
+     * Executes the action to search for the words
+     *
+     * @param taskManager The TaskManager to operate on.
+     */
+    @Override
+    public String runTask(TaskManager taskManager) {
+        return taskManager.searchTasks(query);
+    }
+}
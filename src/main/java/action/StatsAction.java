@@ -0,0 +1,19 @@
+package action;
+
+import task.TaskManager;
+
+/**
+ * An action that shows statistics about the task list and how it was loaded.
+ */
+public class StatsAction extends Action {
+
+    /**
+     * Executes the action to display task statistics.
+     *
+     * @param taskManager The TaskManager to operate on.
+     */
+    @Override
+    public String runTask(TaskManager taskManager) {
+        return taskManager.displayStats();
+    }
+}
@@ -1,11 +1,14 @@
 package action;
 import task.TaskManager;
+import task.TaskSelection;
 
 /**
  * An action that marks a task as not done.
  */
 public class UnmarkAction extends Action {
     private final int taskNumber;
+    private final long taskId;
+    private final TaskSelection selection;
 
     /**
      * Constructs a UnmarkAction with the specified task number.
@@ -14,6 +17,30 @@ public class UnmarkAction extends Action {
      */
     public UnmarkAction(int taskNumber) {
         this.taskNumber = taskNumber;
+        this.taskId = 0;
+        this.selection = null;
+    }
+
+    /**
+     * Constructs a UnmarkAction for the task with the specified ID.
+     *
+     * @param taskId The ID of the task to be marked as not done.
+     */
+    public UnmarkAction(long taskId) {
+        this.taskNumber = -1;
+        this.taskId = taskId;
+        this.selection = null;
+    }
+
+    /**
+     * Constructs a UnmarkAction for several tasks, which are changed together and saved once.
+     *
+     * @param selection The tasks to be marked as not done.
+     */
+    public UnmarkAction(TaskSelection selection) {
+        this.taskNumber = -1;
+        this.taskId = 0;
+        this.selection = selection;
     }
 
     /**
@@ -23,6 +50,9 @@ public class UnmarkAction extends Action {
      */
     @Override
     public String runTask(TaskManager taskManager) {
-        return taskManager.markTaskNotDone(taskNumber);
+        if (selection != null) {
+            return taskManager.markTasksNotDone(selection);
+        }
+        return taskId != 0 ? taskManager.markTaskNotDoneById(taskId) : taskManager.markTaskNotDone(taskNumber);
     }
 }
@@ -2,6 +2,10 @@ package exceptions;
 
 /**
  * Custom exception class for handling errors.
+ * <p>
+ * These exceptions report invalid input rather than bugs, so they do not capture a stack trace, which
+ * would cost far more than the rest of handling the input. For the same reason they cannot be given a
+ * cause or suppressed exceptions.
  */
 public class TabbyException extends Exception {
     /**
@@ -10,6 +14,6 @@ public class TabbyException extends Exception {
      * @param response The detailed error message.
      */
     protected TabbyException(String response) {
-        super(response);
+        super(response, null, false, false);
     }
 }
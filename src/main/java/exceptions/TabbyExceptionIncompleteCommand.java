@@ -10,11 +10,16 @@ public class TabbyExceptionIncompleteCommand extends TabbyException {
     public TabbyExceptionIncompleteCommand() {
         super("Invalid Command. Here are the valid commands & the respective formats:\n"
                 + "  - List\n"
-                + "  - Reminder\n"
+                + "  - Reminder: reminder, reminder <N> or reminder within <N><m|h|d|w>, e.g. reminder within 3d\n"
                 + "  - Find <keyword>\n"
-                + "  - Mark: mark <task number>\n"
-                + "  - Unmark: unmark <task number>\n"
-                + "  - Delete: delete <task number>\n"
+                + "  - Find~ <keyword>\n"
+                + "  - Search <word> [or <word>]\n"
+                + "  - Stats\n"
+                + "  - Mark: mark <tasks>\n"
+                + "  - Unmark: unmark <tasks>\n"
+                + "  - Delete: delete <tasks>\n"
+                + "    where <tasks> is a task number, #<task id>, a range <first>-<last>, a set such as 3,7,9-20,\n"
+                + "    or all, done or undone\n"
                 + "  - Deadline: deadline <description> /by <dd/mm/yyyy> <hhmm> \n"
                 + "  - Event: event <description> /from <dd/mm/yyyy> <hhmm> /to <dd/mm/yyyy> <hhmm> \n"
                 + "  - Todo: todo <description>");
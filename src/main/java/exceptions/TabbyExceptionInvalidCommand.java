@@ -13,6 +13,7 @@ public class TabbyExceptionInvalidCommand extends TabbyException {
      * The error message specifies the list of valid commands available in the application.
      */
     public TabbyExceptionInvalidCommand() {
-        super("Invalid Command. Valid commands: mark, unmark, delete, list, todo, event, deadline,reminder, find");
+        super("Invalid Command. Valid commands: mark, unmark, delete, list, todo, event, deadline,reminder, find, "
+                + "find~, search");
     }
 }
@@ -0,0 +1,18 @@
+/**
+ * This package contains custom exceptions used in the Tabby application to handle specific error cases.
+ */
+package exceptions;
+
+/**
+ * Exception thrown when the options given to the reminder command are not a count or a time window.
+ */
+public class TabbyExceptionInvalidReminder extends TabbyException {
+
+    /**
+     * Constructs a new TabbyExceptionInvalidReminder with a default error message.
+     * The error message specifies the accepted forms of the reminder command.
+     */
+    public TabbyExceptionInvalidReminder() {
+        super("Invalid reminder format. Expected: reminder, reminder <count> or reminder within <number><m|h|d|w>");
+    }
+}
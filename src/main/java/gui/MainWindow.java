@@ -58,7 +58,7 @@ public class MainWindow extends AnchorPane {
     /**
      * Handles the event triggered by the user input (e.g., clicking the send button or pressing Enter).
      * It sends the user's input to Tabby, retrieves the response, and displays both in the dialog container.
-     * If the response is a farewell message, the application exits.
+     * If the response ends with a farewell message, the application exits.
      */
     @FXML
     private void handleUserInput() {
@@ -74,8 +74,8 @@ public class MainWindow extends AnchorPane {
         // Clear the input field after processing
         userInput.clear();
 
-        // Exit the application if the response is a farewell message
-        if (output.equals("Bye. Hope to see you again soon!")) {
+        // Exit the application if the response ends with a farewell message
+        if (output.endsWith("Bye. Hope to see you again soon!")) {
             Platform.exit();
             System.exit(0);
         }
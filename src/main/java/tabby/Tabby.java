@@ -1,8 +1,21 @@
 package tabby;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import action.Action;
+import action.ActionResult;
+import action.Parser;
 import exceptions.TabbyException;
 import task.Storage;
+import task.StorageConfig;
 import task.TaskManager;
 
 
@@ -11,7 +24,10 @@ import task.TaskManager;
  */
 public class Tabby {
     private static final String DIRECTORY = "./data";
-    private static final String FILENAME = "tabby_data.txt";
+    private static final long DEFAULT_GROUP_COMMIT_MILLIS = 2;
+    private static final String GOODBYE = "Bye. Hope to see you again soon!";
+    // Lines of piped input run as one batch, so that a long script does not become one huge response
+    private static final int MAX_BATCH_LINES = 1024;
     private final Storage storage;
     private final TaskManager taskManager;
     private final Ui ui;
@@ -21,49 +37,244 @@ public class Tabby {
      * The constructor sets up the user interface, storage, and task management.
      * <p>
      * - Initializes the Ui component to handle user interactions.
-     * - Sets up Storage with a specified directory and filename for task persistence.
-     * - Initializes TaskManager to manage tasks with the provided storage and UI.
+     * - Sets up Storage in the data directory, using the backend selected by {@link StorageConfig}.
+     * - Initializes TaskManager to manage tasks with the provided storage and UI, in the configured
+     *   {@code layout}. If {@code durable} is set, every change is forced to disk before it is
+     *   confirmed, with changes made within {@code groupCommitMillis} of each other sharing one save.
+     *   Otherwise, tasks are saved on a background thread if {@code writeBehindMillis} is configured.
+     * - Closes the TaskManager when the JVM shuts down, so pending changes are saved.
      */
     public Tabby() {
         this.ui = new Ui();
-        this.storage = new Storage(DIRECTORY, FILENAME, this.ui);
-        this.taskManager = new TaskManager(this.storage, this.ui);
+        StorageConfig config = StorageConfig.load(DIRECTORY);
+        this.storage = config.createStorage(this.ui);
+        this.taskManager = new TaskManager(this.storage, this.ui, config.getLayout());
+
+        long writeBehindMillis = config.getLong("writeBehindMillis", 0);
+        if (config.isDurable()) {
+            this.taskManager.enableGroupCommit(config.getLong("groupCommitMillis", DEFAULT_GROUP_COMMIT_MILLIS));
+        } else if (writeBehindMillis > 0) {
+            this.taskManager.enableWriteBehind(writeBehindMillis);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this.taskManager::close, "tabby-shutdown"));
     }
 
     /**
-     * Prints a greeting message for the chatbot.
+     * Runs Tabby in the terminal, reading commands from standard input and writing the responses to
+     * standard output, without loading any JavaFX class. This starts faster and uses less memory than the
+     * graphical interface, and lets Tabby be scripted, as in {@code java -cp tabby.jar tabby.Tabby < input.txt}.
+     * <p>
+     * Lines that are already waiting to be read, such as the lines of a piped file, are read together and
+     * their changes saved once. Responses are flushed whenever Tabby waits for more input.
+     *
+     * @param args Not used.
+     * @throws IOException If standard input cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+        Tabby tabby = new Tabby();
+        out.println(tabby.getGreeting());
+        out.flush();
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            List<String> lines = new ArrayList<>();
+            lines.add(line);
+            while (lines.size() < MAX_BATCH_LINES && in.ready()) {
+                String nextLine = in.readLine();
+                if (nextLine == null) {
+                    break;
+                }
+                lines.add(nextLine);
+            }
+
+            String output = tabby.readLines(lines);
+            out.println(output);
+            if (output.endsWith(GOODBYE)) {
+                break;
+            }
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Prints a greeting message for the chatbot, followed by a warning if some task lines in the data file
+     * could not be read. Those lines are left in the file as they are.
      */
     public String getGreeting() {
-        return ui.greeting();
+        List<String> unreadableLines = taskManager.getLoadResult().getUnreadableLines();
+        if (unreadableLines.isEmpty()) {
+            return ui.greeting();
+        }
+        return ui.greeting() + "\n" + ui.error(String.format("%d lines in the data file could not be read, such as"
+                + " \"%s\". They are kept in the file as they are; fix or remove them by hand.",
+                unreadableLines.size(), unreadableLines.get(0)));
     }
 
     /**
      * Processes user input, allowing the user to interact with the chatbot by adding tasks
      * or viewing the task list. Returns a goodbye message if the user types "bye".
+     * <p>
+     * Input holding several commands, separated by {@code ;} or line breaks, is run as one batch: the
+     * changes made by all the commands are saved once, and the responses are returned together. Use
+     * {@code \;} for a {@code ;} inside a command, as in {@code todo buy milk\; eggs}. A batch is all or
+     * nothing: if any command in it is invalid, no command is run, and if a command fails, the changes made
+     * by the commands before it are undone.
      *
      * @param input The user input string.
      * @return A message confirming task actions, an error message, or a goodbye message.
      */
     public String readUserInput(String input) {
-        if (input.equalsIgnoreCase("bye")) {
+        List<String> commands = Parser.splitCommands(input);
+        if (commands.size() > 1) {
+            return readBatch(commands);
+        }
+
+        String command = commands.isEmpty() ? input : commands.get(0);
+        if (command.equalsIgnoreCase("bye")) {
             return goodbye();
         }
+        return runCommand(command);
+    }
+
+    /**
+     * Runs lines of input that were read together, such as the lines of a piped file, stopping at the line
+     * holding "bye". Each line is run as if it had been typed, so a line that fails does not undo the lines
+     * before it, but the changes made by all the lines are saved once.
+     *
+     * @param lines The lines to run.
+     * @return The responses to the lines, one after the other.
+     */
+    private String readLines(List<String> lines) {
+        int byeIndex = 0;
+        while (byeIndex < lines.size() && !hasBye(lines.get(byeIndex))) {
+            byeIndex++;
+        }
 
+        List<String> linesBeforeBye = lines.subList(0, byeIndex);
         StringBuilder output = new StringBuilder();
         try {
-            Action action = Action.userAction(input, false, true, ui);
-            output.append(action.runTask(taskManager)).append("\n");
-        } catch (TabbyException e) {
-            output.append(ui.error(e.getMessage())).append("\n");
+            taskManager.runBatch(() -> {
+                for (String line : linesBeforeBye) {
+                    if (!line.isBlank()) {
+                        output.append(readUserInput(line)).append("\n");
+                    }
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            output.append(ui.error(e.getMessage()).trim()).append("\n");
         }
+        if (byeIndex < lines.size()) {
+            output.append(readUserInput(lines.get(byeIndex)));
+        }
+        return output.toString().trim();
+    }
 
+    private static boolean hasBye(String line) {
+        return Parser.splitCommands(line).stream().anyMatch(command -> command.equalsIgnoreCase("bye"));
+    }
+
+    /**
+     * Runs several commands as one batch, stopping at "bye". Every command is checked before any is run,
+     * and the changes made by the batch are undone if one of its commands fails.
+     *
+     * @param commands The commands to run.
+     * @return The responses to the commands, one after the other, ending with the goodbye message if the
+     *         batch holds "bye", or an error message naming the command that stopped the batch.
+     */
+    private String readBatch(List<String> commands) {
+        int byeIndex = 0;
+        while (byeIndex < commands.size() && !commands.get(byeIndex).equalsIgnoreCase("bye")) {
+            byeIndex++;
+        }
+
+        List<String> commandsBeforeBye = commands.subList(0, byeIndex);
+        List<Action> actions = new ArrayList<>(commandsBeforeBye.size());
+        for (String command : commandsBeforeBye) {
+            ActionResult result = Action.tryUserAction(command, false, true, ui);
+            if (!result.isSuccess()) {
+                return ui.error(String.format("Nothing was run, as \"%s\" is not a valid command.\n %s",
+                        command, result.error().getMessage())).trim();
+            }
+            actions.add(result.action());
+        }
+
+        StringBuilder output = new StringBuilder();
+        try {
+            taskManager.runBatch(() -> {
+                for (int i = 0; i < actions.size(); i++) {
+                    String response = runAction(actions.get(i));
+                    if (ui.isError(response)) {
+                        throw new FailedBatchException(commandsBeforeBye.get(i), response);
+                    }
+                    output.append(response).append("\n");
+                }
+                return null;
+            });
+        } catch (FailedBatchException e) {
+            return ui.error(String.format("Nothing was changed, as \"%s\" failed:", e.command)) + "\n"
+                    + e.response;
+        } catch (UncheckedIOException e) {
+            output.append(ui.error(e.getMessage()).trim()).append("\n");
+        }
+        if (byeIndex < commands.size()) {
+            output.append(goodbye());
+        }
         return output.toString().trim();
     }
 
     /**
-     * Prints a goodbye message for the chatbot.
+     * Stops a batch when one of its commands fails, so that the changes made by the batch are undone.
+     */
+    private static class FailedBatchException extends RuntimeException {
+        private final String command;
+        private final String response;
+
+        private FailedBatchException(String command, String response) {
+            super(response, null, false, false);
+            this.command = command;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Runs a single command.
+     */
+    private String runCommand(String input) {
+        ActionResult result = Action.tryUserAction(input, false, true, ui);
+        if (!result.isSuccess()) {
+            return ui.error(result.error().getMessage()).trim();
+        }
+        return runAction(result.action());
+    }
+
+    /**
+     * Runs an action. A change that could not be saved durably is reported as an error, although it stays
+     * in the list.
+     */
+    private String runAction(Action action) {
+        try {
+            return action.runTask(taskManager).trim();
+        } catch (TabbyException | UncheckedIOException e) {
+            return ui.error(e.getMessage()).trim();
+        }
+    }
+
+    /**
+     * Saves any pending changes, closes the storage and prints a goodbye message for the chatbot.
+     * If the pending changes could not be saved durably, the error comes before the goodbye message.
      */
     public String goodbye() {
-        return ui.display("Bye. Hope to see you again soon!");
+        try {
+            taskManager.close();
+        } catch (UncheckedIOException e) {
+            return ui.error(e.getMessage()) + "\n" + ui.display(GOODBYE);
+        }
+        return ui.display(GOODBYE);
     }
 }
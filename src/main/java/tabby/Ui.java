@@ -6,6 +6,7 @@ package tabby;
  */
 public class Ui {
     private static final String CHATBOT = "Tabby";
+    private static final String ERROR_FACE = "= >_< =";
 
     /**
      * Displays a message in a formatted manner.
@@ -29,7 +30,17 @@ public class Ui {
      * @param message The error message to be displayed.
      */
     public String error(String message) {
-        return String.format("= >_< = Error! \n %s", message);
+        return ERROR_FACE + " Error! \n " + message;
+    }
+
+    /**
+     * Checks whether a response to a command is an error message.
+     *
+     * @param response The response to check.
+     * @return true if the response reports an error.
+     */
+    public boolean isError(String response) {
+        return response.startsWith(ERROR_FACE);
     }
 }
 
@@ -0,0 +1,123 @@
+package task;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import tabby.Ui;
+
+/**
+ * A Storage that keeps tasks in the binary format described by {@link BinaryTaskFormat},
+ * so that loading and saving do not need to parse or render the text format.
+ */
+public class BinaryStorage implements DurableStorage {
+    private final String directory;
+    private final String fileName;
+    private final Ui ui;
+
+    /**
+     * Constructs a BinaryStorage.
+     *
+     * @param directory The directory where the task file is stored.
+     * @param fileName  The name of the binary task file.
+     * @param ui        The Ui instance used to display messages and errors.
+     */
+    public BinaryStorage(String directory, String fileName, Ui ui) {
+        this.directory = directory;
+        this.fileName = fileName;
+        this.ui = ui;
+    }
+
+    /**
+     * Loads all tasks from the binary task file.
+     *
+     * @return A LoadResult holding the loaded tasks; an empty result if the file does not exist or cannot be read.
+     */
+    @Override
+    public LoadResult loadTasks() {
+        File taskFile = new File(directory, fileName);
+        if (!taskFile.exists()) {
+            return LoadResult.empty();
+        }
+
+        try {
+            return BinaryTaskFormat.read(taskFile);
+        } catch (IOException e) {
+            ui.error("Unable to read task file: " + e.getMessage());
+            return LoadResult.empty();
+        }
+    }
+
+    /**
+     * Saves the tasks to a temporary file and moves it over the binary task file.
+     *
+     * @param taskList The list of tasks to save.
+     */
+    @Override
+    public void saveTasks(List<Task> taskList) {
+        save(taskList, false);
+    }
+
+    /**
+     * Saves the tasks to a temporary file, forces it to disk and moves it over the binary task file.
+     *
+     * @param taskList The list of tasks to save.
+     * @throws UncheckedIOException If the tasks could not be written and forced to disk.
+     */
+    @Override
+    public void saveTasksDurably(List<Task> taskList) {
+        save(taskList, true);
+    }
+
+    /**
+     * Returns the next ID recorded next to the binary task file.
+     *
+     * @return The recorded next ID, or 0 if none is recorded.
+     */
+    @Override
+    public long loadNextId() {
+        return NextIdFile.read(NextIdFile.of(directory, fileName));
+    }
+
+    /**
+     * Records the next ID next to the binary task file.
+     *
+     * @param nextId The next ID to give a task.
+     */
+    @Override
+    public void saveNextId(long nextId) {
+        File nextIdFile = NextIdFile.of(directory, fileName);
+        try {
+            NextIdFile.write(nextIdFile, nextId);
+        } catch (IOException e) {
+            ui.error("Error writing to file: " + nextIdFile.getAbsolutePath());
+        }
+    }
+
+    private void save(List<Task> taskList, boolean isDurable) {
+        File folder = new File(directory);
+        if (!folder.exists()) {
+            folder.mkdir();
+        }
+
+        File taskFile = new File(folder, fileName);
+        File tempFile = new File(folder, fileName + ".tmp");
+        try {
+            BinaryTaskFormat.write(tempFile, taskList);
+            if (isDurable) {
+                DurableFiles.replace(tempFile, taskFile);
+            } else {
+                Files.move(tempFile.toPath(), taskFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            if (isDurable) {
+                throw new UncheckedIOException("Error writing to file: " + taskFile.getAbsolutePath(), e);
+            }
+            ui.error("Error writing to file: " + taskFile.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes tasks in a compact, versioned binary format.
+ * <p>
+ * The file starts with a header: the magic number {@code "TABB"}, a 2-byte version and a 4-byte task count.
+ * Each task is then stored as a type byte ({@code T}, {@code D} or {@code E}), a done flag byte, an 8-byte ID,
+ * one 8-byte epoch-second time for a deadline or two for an event, and a length-prefixed UTF-8 description.
+ */
+public final class BinaryTaskFormat {
+    public static final int MAGIC = 0x54414242;
+    public static final short VERSION = 2;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Writes the tasks to a file, replacing its contents.
+     *
+     * @param file     The file to write to.
+     * @param taskList The tasks to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(File file, List<Task> taskList) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            write(out, taskList);
+        }
+    }
+
+    /**
+     * Writes the tasks to a stream. The stream is flushed but not closed.
+     *
+     * @param stream   The stream to write to.
+     * @param taskList The tasks to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    public static void write(OutputStream stream, List<Task> taskList) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(taskList.size());
+        for (Task task : taskList) {
+            writeTask(out, task);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads all tasks from a file. Reading stops at the first damaged record; the records
+     * from there on are counted as rejected.
+     *
+     * @param file The file to read.
+     * @return A LoadResult holding the tasks that were read.
+     * @throws IOException If the file cannot be opened or its header is not valid.
+     */
+    public static LoadResult read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads all tasks from a stream. Reading stops at the first damaged record; the records
+     * from there on are counted as rejected.
+     *
+     * @param stream The stream to read from.
+     * @return A LoadResult holding the tasks that were read.
+     * @throws IOException If the stream cannot be read or its header is not valid.
+     */
+    public static LoadResult read(InputStream stream) throws IOException {
+        long startTime = System.nanoTime();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary task file");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary task file version: " + version);
+        }
+
+        int taskCount = in.readInt();
+        ArrayList<Task> taskList = new ArrayList<>(Math.max(0, taskCount));
+        int rejectedCount = 0;
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                taskList.add(readTask(in));
+            }
+        } catch (IOException e) {
+            rejectedCount = taskCount - taskList.size();
+        }
+        return new LoadResult(taskList, rejectedCount, System.nanoTime() - startTime);
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        if (task instanceof Deadline deadline) {
+            out.writeByte('D');
+            writeStatus(out, task);
+            out.writeLong(deadline.end);
+        } else if (task instanceof Event event) {
+            out.writeByte('E');
+            writeStatus(out, task);
+            out.writeLong(event.start);
+            out.writeLong(event.end);
+        } else {
+            out.writeByte('T');
+            writeStatus(out, task);
+        }
+        writeString(out, task.description);
+    }
+
+    private static void writeStatus(DataOutputStream out, Task task) throws IOException {
+        out.writeBoolean(task.isDone);
+        out.writeLong(task.id);
+    }
+
+    private static Task readTask(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        boolean isDone = in.readBoolean();
+        long id = in.readLong();
+        Task task = switch (type) {
+        case 'T' -> new ToDo(readString(in), isDone);
+        case 'D' -> {
+            long by = in.readLong();
+            yield new Deadline(readString(in), isDone, by);
+        }
+        case 'E' -> {
+            long from = in.readLong();
+            long to = in.readLong();
+            yield new Event(readString(in), isDone, from, to);
+        }
+        default -> throw new IOException("Unknown task type: " + type);
+        };
+        task.setId(id);
+        return task;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
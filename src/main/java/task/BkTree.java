@@ -0,0 +1,192 @@
+package task;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A BK-tree of words, which finds every word within an edit distance of a query without comparing
+ * the query to all of them. Each child of a node is filed under its distance to the node, so by the
+ * triangle inequality only the children filed within the search radius of the query's distance to
+ * the node can hold matches.
+ * <p>
+ * Searches compare the query to each visited word with Myers' bit-parallel algorithm, which computes
+ * the edit distance a whole column at a time for queries of up to 64 characters.
+ */
+class BkTree {
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private final String word;
+        private Node[] children = new Node[0];
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    /**
+     * Adds a word to the tree, unless it is already there.
+     *
+     * @param word The word to add.
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return;
+            }
+            if (distance >= node.children.length) {
+                node.children = Arrays.copyOf(node.children, distance + 1);
+            }
+            if (node.children[distance] == null) {
+                node.children[distance] = new Node(word);
+                size++;
+                return;
+            }
+            node = node.children[distance];
+        }
+    }
+
+    /**
+     * Passes every word within the given edit distance of the query to the consumer, with its distance.
+     *
+     * @param query       The word to look for.
+     * @param maxDistance The largest edit distance to accept.
+     * @param consumer    The consumer of the matching words and their distances.
+     */
+    void forEachWithin(String query, int maxDistance, ObjIntConsumer<String> consumer) {
+        if (root == null) {
+            return;
+        }
+
+        Matcher matcher = new Matcher(query);
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = matcher.distanceTo(node.word);
+            if (distance <= maxDistance) {
+                consumer.accept(node.word, distance);
+            }
+            int last = Math.min(distance + maxDistance, node.children.length - 1);
+            for (int i = Math.max(1, distance - maxDistance); i <= last; i++) {
+                if (node.children[i] != null) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of words in the tree.
+     *
+     * @return The number of words.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every word from the tree.
+     */
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Computes the edit distance from one query to many words, keeping for each character a bit mask of
+     * the positions where it occurs in the query so that each word is compared in a single pass.
+     */
+    private static class Matcher {
+        private final String query;
+        private final long[] asciiMasks = new long[128];
+        private final Map<Character, Long> otherMasks = new HashMap<>();
+        private final long lastBit;
+
+        private Matcher(String query) {
+            this.query = query;
+            this.lastBit = query.isEmpty() ? 0 : 1L << (query.length() - 1);
+            if (query.length() > Long.SIZE) {
+                return;
+            }
+            for (int i = 0; i < query.length(); i++) {
+                char c = query.charAt(i);
+                if (c < asciiMasks.length) {
+                    asciiMasks[c] |= 1L << i;
+                } else {
+                    otherMasks.merge(c, 1L << i, (first, second) -> first | second);
+                }
+            }
+        }
+
+        private int distanceTo(String word) {
+            if (query.isEmpty() || query.length() > Long.SIZE) {
+                return distance(query, word);
+            }
+
+            long positive = -1L;
+            long negative = 0;
+            int score = query.length();
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                long equal = c < asciiMasks.length ? asciiMasks[c] : otherMasks.getOrDefault(c, 0L);
+                long vertical = equal | negative;
+                long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+                long horizontalPositive = negative | ~(horizontal | positive);
+                long horizontalNegative = positive & horizontal;
+                if ((horizontalPositive & lastBit) != 0) {
+                    score++;
+                } else if ((horizontalNegative & lastBit) != 0) {
+                    score--;
+                }
+                horizontalPositive = (horizontalPositive << 1) | 1;
+                horizontalNegative <<= 1;
+                positive = horizontalNegative | ~(vertical | horizontalPositive);
+                negative = horizontalPositive & vertical;
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Computes the Levenshtein distance between two words: the number of characters that must be
+     * inserted, deleted or substituted to turn one into the other.
+     *
+     * @param first  The first word.
+     * @param second The second word.
+     * @return The edit distance between the words.
+     */
+    static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            char c = first.charAt(i - 1);
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (c == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+}
@@ -0,0 +1,401 @@
+package task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A task list that stores each field of its tasks in a column of primitives instead of keeping a task
+ * object per task: a byte array of types, a bit set of done flags, arrays of IDs and times, and a
+ * {@link DescriptionArena} holding every description in UTF-8, which may be kept outside the Java heap.
+ * <p>
+ * {@link #get(int)} hands out a new task built from the columns each time, which the caller may keep
+ * for as long as it needs. Changing a task it was given does not change the list; the change is stored
+ * by setting the task back, as with {@link PagedTaskList}. Tasks added or removed in the middle of the
+ * list shift the columns after them.
+ * <p>
+ * {@link #find(String)} checks descriptions in their UTF-8 form and only decodes the tasks it returns.
+ */
+class ColumnarTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BYTES_PER_DESCRIPTION = 32;
+    // The type and status that start the string form of every task, such as "[D][X] "
+    private static final int PREFIX_LENGTH = Task.STATUS_PREFIX_LENGTH + 1;
+    // A char of a Java string takes at most three bytes in UTF-8
+    private static final int MAX_BYTES_PER_CHAR = 3;
+    // The type and status text of each type of task, not done and done, in the order of prefixIndex
+    private static final String[] PREFIXES = {
+        new ToDo("", false).toString(), new ToDo("", true).toString(),
+        new Deadline("", false, 0).toString().substring(0, PREFIX_LENGTH),
+        new Deadline("", true, 0).toString().substring(0, PREFIX_LENGTH),
+        new Event("", false, 0, 0).toString().substring(0, PREFIX_LENGTH),
+        new Event("", true, 0, 0).toString().substring(0, PREFIX_LENGTH),
+    };
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+
+    private byte[] types;
+    private final BitSet doneFlags = new BitSet();
+    private long[] ids;
+    // The end of a deadline or event and the start of an event, in epoch seconds
+    private long[] ends;
+    private long[] starts;
+    private int[] descriptionOffsets;
+    private int[] descriptionLengths;
+    private final DescriptionArena descriptions;
+    private boolean isSortedById = true;
+    private int size;
+
+    private ColumnarTaskList(int capacity, boolean isOffHeap) {
+        capacity = Math.max(capacity, INITIAL_CAPACITY);
+        descriptions = new DescriptionArena((int) Math.min((long) capacity * BYTES_PER_DESCRIPTION,
+                Integer.MAX_VALUE - 8), isOffHeap);
+        types = new byte[capacity];
+        ids = new long[capacity];
+        ends = new long[capacity];
+        starts = new long[capacity];
+        descriptionOffsets = new int[capacity];
+        descriptionLengths = new int[capacity];
+    }
+
+    /**
+     * Copies the given tasks into columns.
+     *
+     * @param tasks     The tasks in list order.
+     * @param isOffHeap Whether to keep the descriptions outside the Java heap.
+     * @return A list holding the same tasks.
+     */
+    static ColumnarTaskList of(List<Task> tasks, boolean isOffHeap) {
+        ColumnarTaskList taskList = new ColumnarTaskList(tasks.size(), isOffHeap);
+        for (Task task : tasks) {
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds a task from the columns at the given position.
+     */
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size);
+        return build(index, descriptions.get(descriptionOffsets[index], descriptionLengths[index]));
+    }
+
+    private Task build(int index, String description) {
+        boolean isDone = doneFlags.get(index);
+        Task task = switch (types[index]) {
+        case TODO -> new ToDo(description, isDone);
+        case DEADLINE -> new Deadline(description, isDone, ends[index]);
+        default -> new Event(description, isDone, starts[index], ends[index]);
+        };
+        task.setId(ids[index]);
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        byte[] description = task.description.getBytes(StandardCharsets.UTF_8);
+        if (!descriptions.equalsAt(descriptionOffsets[index], descriptionLengths[index], description)) {
+            descriptions.free(descriptionLengths[index]);
+            store(index, description);
+        }
+        storeFields(index, task);
+        isSortedById = isSortedById && isInIdOrder(index);
+        compactIfWasteful();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        int tailLength = size - index;
+        System.arraycopy(types, index, types, index + 1, tailLength);
+        System.arraycopy(ids, index, ids, index + 1, tailLength);
+        System.arraycopy(ends, index, ends, index + 1, tailLength);
+        System.arraycopy(starts, index, starts, index + 1, tailLength);
+        System.arraycopy(descriptionOffsets, index, descriptionOffsets, index + 1, tailLength);
+        System.arraycopy(descriptionLengths, index, descriptionLengths, index + 1, tailLength);
+        if (tailLength > 0) {
+            shiftDoneFlags(index, 1);
+        }
+        size++;
+
+        store(index, task.description.getBytes(StandardCharsets.UTF_8));
+        storeFields(index, task);
+        isSortedById = isSortedById && isInIdOrder(index);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task task = get(index);
+        descriptions.free(descriptionLengths[index]);
+        int tailLength = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, tailLength);
+        System.arraycopy(ids, index + 1, ids, index, tailLength);
+        System.arraycopy(ends, index + 1, ends, index, tailLength);
+        System.arraycopy(starts, index + 1, starts, index, tailLength);
+        System.arraycopy(descriptionOffsets, index + 1, descriptionOffsets, index, tailLength);
+        System.arraycopy(descriptionLengths, index + 1, descriptionLengths, index, tailLength);
+        shiftDoneFlags(index + 1, -1);
+        size--;
+        doneFlags.clear(size);
+        compactIfWasteful();
+        modCount++;
+        return task;
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass, moving each task that is kept into place
+     * once, without building any task.
+     *
+     * @param positions The zero-based positions of the tasks to remove.
+     * @return The number of tasks removed.
+     */
+    int removePositions(BitSet positions) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (positions.get(i)) {
+                descriptions.free(descriptionLengths[i]);
+                continue;
+            }
+            types[kept] = types[i];
+            ids[kept] = ids[i];
+            ends[kept] = ends[i];
+            starts[kept] = starts[i];
+            descriptionOffsets[kept] = descriptionOffsets[i];
+            descriptionLengths[kept] = descriptionLengths[i];
+            doneFlags.set(kept, doneFlags.get(i));
+            kept++;
+        }
+        int removed = size - kept;
+        doneFlags.clear(kept, size);
+        size = kept;
+        if (removed > 0) {
+            compactIfWasteful();
+            modCount++;
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        doneFlags.clear();
+        descriptions.clear();
+        isSortedById = true;
+        modCount++;
+    }
+
+    /**
+     * Returns whether the task at the given position is done, without building the task.
+     *
+     * @param index The position of the task.
+     * @return true if the task is marked as done.
+     */
+    boolean isDone(int index) {
+        checkIndex(index, size);
+        return doneFlags.get(index);
+    }
+
+    /**
+     * Returns whether the task at the given position is a deadline or event that is not done yet,
+     * without building the task.
+     *
+     * @param index The position of the task.
+     * @return true if the task may need a reminder.
+     */
+    boolean isPending(int index) {
+        checkIndex(index, size);
+        return types[index] != TODO && !doneFlags.get(index);
+    }
+
+    /**
+     * Finds the tasks whose string form contains the text, with the same results as checking the string
+     * form of every task, but without decoding the descriptions of the tasks that do not match.
+     *
+     * @param text The text to look for, matched exactly.
+     * @return The matching tasks, in list order.
+     */
+    List<Task> find(String text) {
+        byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+        Map<Long, String> formattedTimes = new HashMap<>();
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (text.isEmpty() || matches(i, text, textBytes, formattedTimes)) {
+                matches.add(get(i));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns whether the string form of a task contains the text. A match either lies within the
+     * description, which is checked on its bytes, or reaches into the type and status before it or the
+     * times after it. Such a match starts in the text before the description or ends in the text after it,
+     * and holds fewer characters of the description than the text has, all next to that border.
+     */
+    private boolean matches(int index, String text, byte[] textBytes, Map<Long, String> formattedTimes) {
+        int offset = descriptionOffsets[index];
+        int length = descriptionLengths[index];
+        if (descriptions.indexOf(offset, length, textBytes) >= 0) {
+            return true;
+        }
+
+        String before = PREFIXES[prefixIndex(types[index], doneFlags.get(index))];
+        String after = switch (types[index]) {
+        case TODO -> "";
+        case DEADLINE -> Deadline.timeText(format(ends[index], formattedTimes));
+        default -> Event.timeText(format(starts[index], formattedTimes), format(ends[index], formattedTimes));
+        };
+        boolean canStartBefore = before.indexOf(text.charAt(0)) >= 0;
+        boolean canEndAfter = after.indexOf(text.charAt(text.length() - 1)) >= 0;
+        if (!canStartBefore && !canEndAfter) {
+            return false;
+        }
+
+        // Bytes cut from the middle of a character decode to U+FFFD, which only a text containing it can match
+        int edgeLength = (text.length() - 1) * MAX_BYTES_PER_CHAR;
+        if (length <= 2 * edgeLength || text.indexOf('\uFFFD') >= 0) {
+            return (before + descriptions.get(offset, length) + after).contains(text);
+        }
+        return canStartBefore && (before + descriptions.get(offset, edgeLength)).contains(text)
+                || canEndAfter && (descriptions.get(offset + length - edgeLength, edgeLength) + after).contains(text);
+    }
+
+    private static String format(long time, Map<Long, String> formattedTimes) {
+        return formattedTimes.computeIfAbsent(time, TaskTime::format);
+    }
+
+    private static int prefixIndex(byte type, boolean isDone) {
+        int typeIndex = switch (type) {
+        case TODO -> 0;
+        case DEADLINE -> 1;
+        default -> 2;
+        };
+        return 2 * typeIndex + (isDone ? 1 : 0);
+    }
+
+    /**
+     * Finds the position of the task with the given ID without building any task. While the IDs are
+     * in increasing order, as they are when tasks are only added at the end, this is a binary search.
+     *
+     * @param id The ID of the task.
+     * @return The zero-based position of the task, or -1 if no task has the ID.
+     */
+    int indexOfId(long id) {
+        if (isSortedById) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index < 0 ? -1 : index;
+        }
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of bytes held by the columns, including the space reserved for later tasks.
+     *
+     * @return The size of the columns in bytes.
+     */
+    long getColumnBytes() {
+        long perTask = Byte.BYTES + 3L * Long.BYTES + 2L * Integer.BYTES;
+        return types.length * perTask + doneFlags.size() / Byte.SIZE;
+    }
+
+    /**
+     * Returns the number of bytes reserved for descriptions.
+     *
+     * @return The capacity of the description arena in bytes.
+     */
+    long getDescriptionBytes() {
+        return descriptions.getCapacity();
+    }
+
+    /**
+     * Returns whether the descriptions are kept outside the Java heap.
+     *
+     * @return true if the description arena is off the heap.
+     */
+    boolean isOffHeap() {
+        return descriptions.isOffHeap();
+    }
+
+    private void storeFields(int index, Task task) {
+        if (task instanceof Deadline deadline) {
+            types[index] = DEADLINE;
+            ends[index] = deadline.end;
+        } else if (task instanceof Event event) {
+            types[index] = EVENT;
+            starts[index] = event.start;
+            ends[index] = event.end;
+        } else {
+            types[index] = TODO;
+        }
+        doneFlags.set(index, task.isDone);
+        ids[index] = task.id;
+    }
+
+    private void store(int index, byte[] description) {
+        descriptionOffsets[index] = descriptions.add(description);
+        descriptionLengths[index] = description.length;
+    }
+
+    private void compactIfWasteful() {
+        if (descriptions.isWasteful()) {
+            descriptions.compact(descriptionOffsets, descriptionLengths, size);
+        }
+    }
+
+    /**
+     * Moves the done flags from the given position to the end of the list by the given distance.
+     */
+    private void shiftDoneFlags(int from, int distance) {
+        BitSet tail = doneFlags.get(from, size);
+        doneFlags.clear(Math.min(from, from + distance), size + Math.max(distance, 0));
+        for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) {
+            doneFlags.set(from + distance + i);
+        }
+    }
+
+    private boolean isInIdOrder(int index) {
+        return (index == 0 || ids[index - 1] < ids[index]) && (index == size - 1 || ids[index] < ids[index + 1]);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length + (types.length >> 1));
+        types = Arrays.copyOf(types, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        starts = Arrays.copyOf(starts, newCapacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, newCapacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+}
@@ -8,27 +8,46 @@ package task;
 public class Deadline extends Task {
 
     /**
-     * The deadline for the task in string format.
+     * The deadline for the task in epoch seconds, as produced by {@link TaskTime}.
      */
-    protected String end;
+    protected long end;
 
     /**
      * Constructs a new {@code Deadline} task with the specified description and deadline.
      *
      * @param description The description of the task.
-     * @param end         The deadline by which the task should be completed.
+     * @param end         The deadline by which the task should be completed, in epoch seconds.
      */
-    public Deadline(String description, boolean isDone, String end) {
+    public Deadline(String description, boolean isDone, long end) {
         super(description, isDone);
         this.end = end;
     }
 
     /**
-     * Returns a string representation of the deadline task.
+     * Returns the deadline of the task.
+     *
+     * @return The deadline in epoch seconds.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Builds the string representation of the deadline task for the given status.
      * @return A formatted string representing the deadline task.
      */
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: " + end + ")";
+    String render(boolean isDone) {
+        return "[D]" + super.render(isDone) + timeText(TaskTime.format(end));
+    }
+
+    /**
+     * Returns the text that follows the description in the string form of a deadline.
+     *
+     * @param end The formatted deadline.
+     * @return The deadline text, starting with a space.
+     */
+    static String timeText(String end) {
+        return " (by: " + end + ")";
     }
 }
@@ -0,0 +1,194 @@
+package task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Holds task descriptions as UTF-8 bytes one after the other in a single buffer, each addressed by its
+ * offset and length. The buffer may be allocated outside the Java heap, so that however many descriptions
+ * it holds, the garbage collector has nothing to trace or copy for them.
+ * <p>
+ * Descriptions are only ever appended. The space of a description that is no longer used is reclaimed
+ * by {@link #compact}, which the owner calls once {@link #isWasteful()} says enough of it has built up.
+ */
+class DescriptionArena {
+    private static final int MIN_CAPACITY = 4096;
+    private static final int MIN_GARBAGE_TO_COMPACT = 64 * 1024;
+    private static final int COPY_CHUNK_SIZE = 8192;
+
+    private final boolean isOffHeap;
+    private ByteBuffer bytes;
+    private int size;
+    // Bytes of descriptions that are no longer used, reclaimed by compacting
+    private int garbageSize;
+
+    /**
+     * Constructs an empty DescriptionArena.
+     *
+     * @param capacity  The number of bytes to reserve at first.
+     * @param isOffHeap Whether to keep the bytes in a direct buffer outside the Java heap.
+     */
+    DescriptionArena(int capacity, boolean isOffHeap) {
+        this.isOffHeap = isOffHeap;
+        this.bytes = allocate(Math.max(capacity, MIN_CAPACITY));
+    }
+
+    /**
+     * Appends a description.
+     *
+     * @param description The description in UTF-8.
+     * @return The offset of the description in the arena.
+     */
+    int add(byte[] description) {
+        if (size + description.length > bytes.capacity()) {
+            long capacity = Math.max(2L * bytes.capacity(), (long) size + description.length);
+            ByteBuffer grown = allocate((int) Math.min(capacity, Integer.MAX_VALUE - 8));
+            grown.put(0, bytes, 0, size);
+            bytes = grown;
+        }
+        bytes.put(size, description);
+        int offset = size;
+        size += description.length;
+        return offset;
+    }
+
+    /**
+     * Records that a description is no longer used, so its space can be reclaimed.
+     *
+     * @param length The length of the description in bytes.
+     */
+    void free(int length) {
+        garbageSize += length;
+    }
+
+    /**
+     * Decodes the description at the given offset.
+     *
+     * @param offset The offset of the description.
+     * @param length The length of the description in bytes.
+     * @return The description.
+     */
+    String get(int offset, int length) {
+        byte[] description = new byte[length];
+        bytes.get(offset, description);
+        return new String(description, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns whether the description at the given offset has the given bytes, without decoding it.
+     *
+     * @param offset      The offset of the description.
+     * @param length      The length of the description in bytes.
+     * @param description The UTF-8 bytes to compare with.
+     * @return true if the bytes are the same.
+     */
+    boolean equalsAt(int offset, int length, byte[] description) {
+        return length == description.length && indexOf(offset, length, description) == 0;
+    }
+
+    /**
+     * Finds text in the description at the given offset without decoding it. Since no character in UTF-8
+     * starts in the middle of another, the bytes of the text appear in the description exactly where the
+     * text does.
+     *
+     * @param offset The offset of the description.
+     * @param length The length of the description in bytes.
+     * @param text   The UTF-8 bytes of the text, which must not be empty.
+     * @return The offset of the first occurrence of the text from the start of the description, or -1.
+     */
+    int indexOf(int offset, int length, byte[] text) {
+        byte first = text[0];
+        int last = offset + length - text.length;
+        for (int i = offset; i <= last; i++) {
+            if (bytes.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < text.length && bytes.get(i + j) == text[j]) {
+                j++;
+            }
+            if (j == text.length) {
+                return i - offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether more than half of the arena holds descriptions that are no longer used.
+     *
+     * @return true if the arena should be compacted.
+     */
+    boolean isWasteful() {
+        return garbageSize >= MIN_GARBAGE_TO_COMPACT && garbageSize >= size / 2;
+    }
+
+    /**
+     * Moves the descriptions still in use towards the start of the arena, in place, and updates their offsets.
+     *
+     * @param offsets The offsets of the descriptions in use, updated to their new offsets.
+     * @param lengths The lengths of the descriptions in use.
+     * @param count   The number of descriptions in use.
+     */
+    void compact(int[] offsets, int[] lengths, int count) {
+        // Moving the descriptions in the order they lie in the arena never overwrites one yet to be moved
+        long[] byOffset = new long[count];
+        for (int i = 0; i < count; i++) {
+            byOffset[i] = ((long) offsets[i] << Integer.SIZE) | i;
+        }
+        Arrays.sort(byOffset);
+
+        byte[] chunk = new byte[COPY_CHUNK_SIZE];
+        int compactedSize = 0;
+        for (long entry : byOffset) {
+            int index = (int) entry;
+            move(offsets[index], compactedSize, lengths[index], chunk);
+            offsets[index] = compactedSize;
+            compactedSize += lengths[index];
+        }
+        size = compactedSize;
+        garbageSize = 0;
+    }
+
+    /**
+     * Removes every description.
+     */
+    void clear() {
+        size = 0;
+        garbageSize = 0;
+    }
+
+    /**
+     * Returns the number of bytes reserved by the arena.
+     *
+     * @return The capacity of the arena in bytes.
+     */
+    int getCapacity() {
+        return bytes.capacity();
+    }
+
+    /**
+     * Returns whether the arena is kept outside the Java heap.
+     *
+     * @return true if the arena is a direct buffer.
+     */
+    boolean isOffHeap() {
+        return isOffHeap;
+    }
+
+    private void move(int from, int to, int length, byte[] chunk) {
+        if (from == to) {
+            return;
+        }
+        for (int moved = 0; moved < length; moved += chunk.length) {
+            int chunkLength = Math.min(chunk.length, length - moved);
+            bytes.get(from + moved, chunk, 0, chunkLength);
+            bytes.put(to + moved, chunk, 0, chunkLength);
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return isOffHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
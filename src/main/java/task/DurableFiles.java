@@ -0,0 +1,55 @@
+package task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files so that the new contents are on disk before the save is reported as done.
+ */
+final class DurableFiles {
+    private DurableFiles() {
+    }
+
+    /**
+     * Forces a completely written temporary file to disk and atomically moves it over the target file.
+     *
+     * @param tempFile   The temporary file holding the new contents.
+     * @param targetFile The file to replace.
+     * @throws IOException If the file cannot be forced or moved.
+     */
+    static void replace(File tempFile, File targetFile) throws IOException {
+        force(tempFile);
+        Files.move(tempFile.toPath(), targetFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(targetFile.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Forces the contents of a completely written file to disk.
+     *
+     * @param file The file to force.
+     * @throws IOException If the file cannot be opened or forced.
+     */
+    static void force(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk, where the platform allows it.
+     *
+     * @param directory The directory holding the renamed file.
+     */
+    private static void syncDirectory(File directory) {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open a directory; there the rename is committed by the file system itself
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package task;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * A Storage that can force its writes to disk, as needed when every change must be durable before it is
+ * confirmed. Backends that cannot, such as {@link MemoryStorage}, implement only {@link Storage}.
+ */
+public interface DurableStorage extends Storage {
+
+    /**
+     * Saves the whole list of tasks and only returns once it is on disk. Unlike the other saves, a failure
+     * is thrown rather than reported, so that a change is never confirmed as durable when it is not.
+     *
+     * @param taskList The list of tasks to save.
+     * @throws UncheckedIOException If the tasks could not be written and forced to disk.
+     */
+    void saveTasksDurably(List<Task> taskList);
+}
@@ -7,29 +7,58 @@ package task;
  */
 public class Event extends Task {
 
-    protected String start;
-    protected String end;
+    protected long start;
+    protected long end;
 
     /**
      * Constructs a new {@code Event} task with the specified description, start, and end times.
      *
      * @param description The description of the event task.
-     * @param start       The start time of the event.
-     * @param end         The end time of the event.
+     * @param start       The start time of the event, in epoch seconds.
+     * @param end         The end time of the event, in epoch seconds.
      */
-    public Event(String description, boolean isDone, String start, String end) {
+    public Event(String description, boolean isDone, long start, long end) {
         super(description, isDone);
         this.start = start;
         this.end = end;
     }
 
     /**
-     * Returns a string representation of the event task.
+     * Returns the start time of the event.
+     *
+     * @return The start time in epoch seconds.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end time of the event.
+     *
+     * @return The end time in epoch seconds.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Builds the string representation of the event task for the given status.
      * @return A formatted string representing the event task.
      */
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (from: " + start + " to: " + end + ")";
+    String render(boolean isDone) {
+        return "[E]" + super.render(isDone) + timeText(TaskTime.format(start), TaskTime.format(end));
+    }
+
+    /**
+     * Returns the text that follows the description in the string form of an event.
+     *
+     * @param start The formatted start of the event.
+     * @param end   The formatted end of the event.
+     * @return The event times, starting with a space.
+     */
+    static String timeText(String start, String end) {
+        return " (from: " + start + " to: " + end + ")";
     }
 }
 
@@ -0,0 +1,393 @@
+package task;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tabby.Ui;
+
+/**
+ * A TextStorage that appends one small record per mutation to a journal file instead of
+ * rewriting the whole task file. The task file acts as a snapshot; once the journal grows
+ * past a size threshold it is folded into a new snapshot on a background thread.
+ * <p>
+ * Journal records are one per line: {@code A <task>}, {@code D <index>}, {@code M <index>} and
+ * {@code U <index>}, where indexes are zero-based positions at the time of the mutation.
+ * <p>
+ * Compaction renames the journal to {@code .old}, writes the snapshot to {@code .tmp}, renames
+ * {@code .old} to {@code .folded} to mark the snapshot as complete, moves the snapshot over the
+ * task file and finally deletes {@code .folded}. Loading uses these files to finish or discard
+ * a compaction that was interrupted.
+ * <p>
+ * A durable save folds the journal into a snapshot straight away, forcing the snapshot to disk, since
+ * durable saving hands over the whole list rather than single changes.
+ */
+public class JournalStorage extends TextStorage {
+    public static final long DEFAULT_COMPACT_THRESHOLD = 1024 * 1024;
+
+    private static final char ADD = 'A';
+    private static final char DELETE = 'D';
+    private static final char MARK = 'M';
+    private static final char UNMARK = 'U';
+
+    private final File taskFile;
+    private final File journalFile;
+    private final File oldJournalFile;
+    private final File foldedJournalFile;
+    private final File snapshotFile;
+    private final long compactThreshold;
+    private final Ui ui;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tabby-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private OutputStream journalStream;
+    // The length of the journal in bytes, which is what compactThreshold is measured in
+    private long journalSize;
+    private Future<?> compaction;
+
+    /**
+     * Constructs a JournalStorage.
+     *
+     * @param directory        The directory where the task file and journal are stored.
+     * @param fileName         The name of the task (snapshot) file.
+     * @param ui               The Ui instance used to display messages and errors.
+     * @param compactThreshold The journal size in bytes after which it is folded into a new snapshot.
+     */
+    public JournalStorage(String directory, String fileName, Ui ui, long compactThreshold) {
+        super(directory, fileName, ui);
+        this.taskFile = new File(directory, fileName);
+        this.journalFile = new File(directory, fileName + ".journal");
+        this.oldJournalFile = new File(directory, fileName + ".journal.old");
+        this.foldedJournalFile = new File(directory, fileName + ".journal.folded");
+        this.snapshotFile = new File(directory, fileName + ".tmp");
+        this.compactThreshold = compactThreshold;
+        this.ui = ui;
+    }
+
+    /**
+     * Loads the snapshot and replays any journal records on top of it.
+     *
+     * @return A LoadResult holding the replayed tasks; unreadable records count as rejected lines.
+     */
+    @Override
+    public LoadResult loadTasks() {
+        long startTime = System.nanoTime();
+        try {
+            recoverCompaction();
+        } catch (IOException e) {
+            ui.error("Unable to recover journal compaction: " + e.getMessage());
+        }
+
+        LoadResult snapshot = super.loadTasks();
+        List<Task> taskList = snapshot.getTasks();
+        int rejectedCount = snapshot.getRejectedCount();
+        boolean hasUnfoldedJournal = oldJournalFile.exists();
+        rejectedCount += replay(oldJournalFile, taskList);
+        rejectedCount += replay(journalFile, taskList);
+        journalSize = journalFile.length();
+
+        // A compaction was interrupted before its snapshot was complete, so start it again
+        if (hasUnfoldedJournal) {
+            startCompaction(taskList);
+        }
+        return new LoadResult(taskList, rejectedCount, snapshot.getUnreadableLines(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Writes a full snapshot of the tasks and clears the journal.
+     *
+     * @param taskList The list of tasks to save.
+     */
+    @Override
+    public void saveTasks(List<Task> taskList) {
+        awaitCompaction();
+        startCompaction(taskList);
+        awaitCompaction();
+    }
+
+    /**
+     * Folds the journal into a new snapshot of the tasks on the calling thread, forcing the snapshot to disk
+     * before it replaces the task file.
+     *
+     * @param taskList The list of tasks to save.
+     * @throws UncheckedIOException If the snapshot could not be written and forced to disk.
+     */
+    @Override
+    public void saveTasksDurably(List<Task> taskList) {
+        awaitCompaction();
+        try {
+            rotateJournal();
+            foldJournal(new ArrayList<>(taskList), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing to file: " + taskFile.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void taskAdded(List<Task> taskList, Task task) {
+        append(ADD + " " + task.toFileLine(), taskList);
+    }
+
+    @Override
+    public void taskDeleted(List<Task> taskList, int taskNumber) {
+        append(DELETE + " " + taskNumber, taskList);
+    }
+
+    @Override
+    public void taskStatusChanged(List<Task> taskList, int taskNumber) {
+        char type = taskList.get(taskNumber).isDone ? MARK : UNMARK;
+        append(type + " " + taskNumber, taskList);
+    }
+
+    /**
+     * Does not refresh the task file snapshot, since the task list also holds the changes still in the journal.
+     * The snapshot is written when the task file is next parsed.
+     */
+    @Override
+    public void close(List<Task> taskList) {
+    }
+
+    /**
+     * Returns the length of the journal as tracked for compaction.
+     *
+     * @return The number of bytes in the journal.
+     */
+    long getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Appends a record to the journal and starts a compaction if the journal has grown too large.
+     *
+     * @param record   The record to append.
+     * @param taskList The current list of tasks, used as the snapshot if a compaction starts.
+     */
+    private void append(String record, List<Task> taskList) {
+        try {
+            if (journalStream == null) {
+                journalStream = new FileOutputStream(journalFile, true);
+            }
+            byte[] line = (record + "\n").getBytes(Task.FILE_CHARSET);
+            journalStream.write(line);
+            journalSize += line.length;
+        } catch (IOException e) {
+            ui.error("Error writing to file: " + journalFile.getAbsolutePath());
+        }
+
+        if (journalSize >= compactThreshold) {
+            startCompaction(taskList);
+        }
+    }
+
+    /**
+     * Moves the current journal aside and folds it into a new snapshot on the compactor thread.
+     * Does nothing if a compaction is already running.
+     *
+     * @param taskList The current list of tasks; a copy of it becomes the new snapshot.
+     */
+    private void startCompaction(List<Task> taskList) {
+        if (compaction != null && !compaction.isDone()) {
+            return;
+        }
+
+        ArrayList<Task> snapshot = new ArrayList<>(taskList);
+        try {
+            rotateJournal();
+        } catch (IOException e) {
+            ui.error("Unable to rotate journal: " + e.getMessage());
+            return;
+        }
+        compaction = compactor.submit(() -> writeSnapshot(snapshot));
+    }
+
+    /**
+     * Closes the journal and moves its records into the old journal, which the next snapshot will cover.
+     *
+     * @throws IOException If the journal files cannot be moved.
+     */
+    private void rotateJournal() throws IOException {
+        if (journalStream != null) {
+            journalStream.close();
+            journalStream = null;
+        }
+
+        if (!journalFile.exists()) {
+            oldJournalFile.createNewFile();
+        } else if (oldJournalFile.exists()) {
+            Files.write(oldJournalFile.toPath(), Files.readAllBytes(journalFile.toPath()),
+                    StandardOpenOption.APPEND);
+            Files.delete(journalFile.toPath());
+        } else {
+            Files.move(journalFile.toPath(), oldJournalFile.toPath());
+        }
+        journalSize = 0;
+    }
+
+    /**
+     * Writes the snapshot and installs it in place of the task file.
+     *
+     * @param snapshot The tasks to write.
+     */
+    private void writeSnapshot(List<Task> snapshot) {
+        try {
+            foldJournal(snapshot, false);
+        } catch (IOException e) {
+            ui.error("Unable to compact journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the snapshot covering the old journal, marks the old journal as folded and installs the snapshot.
+     *
+     * @param snapshot  The tasks to write.
+     * @param isDurable Whether to force the snapshot to disk before the old journal is marked as folded.
+     * @throws IOException If the snapshot cannot be written or moved.
+     */
+    private void foldJournal(List<Task> snapshot, boolean isDurable) throws IOException {
+        writeTasks(snapshotFile, snapshot, getUnreadableLines());
+        if (isDurable) {
+            DurableFiles.force(snapshotFile);
+        }
+        Files.move(oldJournalFile.toPath(), foldedJournalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        installSnapshot(isDurable);
+    }
+
+    /**
+     * Moves a completed snapshot over the task file and drops the journal records it covers.
+     *
+     * @param isDurable Whether to force the move to disk before the records are dropped.
+     * @throws IOException If the snapshot cannot be moved.
+     */
+    private void installSnapshot(boolean isDurable) throws IOException {
+        if (snapshotFile.exists()) {
+            if (isDurable) {
+                DurableFiles.replace(snapshotFile, taskFile);
+            } else {
+                Files.move(snapshotFile.toPath(), taskFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.deleteIfExists(foldedJournalFile.toPath());
+    }
+
+    /**
+     * Finishes a compaction whose snapshot was complete, or discards a partial snapshot.
+     *
+     * @throws IOException If the snapshot files cannot be moved or deleted.
+     */
+    private void recoverCompaction() throws IOException {
+        if (foldedJournalFile.exists()) {
+            installSnapshot(false);
+        } else {
+            Files.deleteIfExists(snapshotFile.toPath());
+        }
+    }
+
+    /**
+     * Blocks until the running compaction, if any, has finished.
+     */
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (Exception e) {
+            ui.error("Unable to compact journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies every record in a journal file to the task list.
+     *
+     * @param journal  The journal file to replay.
+     * @param taskList The task list to apply the records to.
+     * @return The number of records that could not be applied.
+     */
+    private int replay(File journal, List<Task> taskList) {
+        if (!journal.exists()) {
+            return 0;
+        }
+
+        int rejectedCount = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal))) {
+            String record;
+            while ((record = reader.readLine()) != null) {
+                if (!record.isEmpty() && !applyRecord(record, taskList)) {
+                    rejectedCount++;
+                }
+            }
+        } catch (IOException e) {
+            ui.error("Error reading file: " + journal.getAbsolutePath());
+        }
+        return rejectedCount;
+    }
+
+    /**
+     * Applies a single journal record to the task list.
+     *
+     * @param record   The journal record.
+     * @param taskList The task list to apply the record to.
+     * @return true if the record was applied, false if it is malformed or refers to a missing task.
+     */
+    private static boolean applyRecord(String record, List<Task> taskList) {
+        if (record.length() < 3 || record.charAt(1) != ' ') {
+            return false;
+        }
+
+        String argument = record.substring(2).trim();
+        if (record.charAt(0) == ADD) {
+            Task task;
+            try {
+                task = parseTask(argument);
+            } catch (IllegalStateException e) {
+                // A record cut short by a crash while it was being written
+                return false;
+            }
+            if (task == null) {
+                return false;
+            }
+            taskList.add(task);
+            return true;
+        }
+
+        int taskNumber;
+        try {
+            taskNumber = Integer.parseInt(argument);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (taskNumber < 0 || taskNumber >= taskList.size()) {
+            return false;
+        }
+
+        switch (record.charAt(0)) {
+        case DELETE:
+            taskList.remove(taskNumber);
+            return true;
+        case MARK:
+            taskList.get(taskNumber).markAsDone();
+            return true;
+        case UNMARK:
+            taskList.get(taskNumber).markAsNotDone();
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the outcome of loading the task file: the parsed tasks, the number of
+ * lines that could not be parsed and how long the load took.
+ * <p>
+ * Lines that look like tasks but cannot be read, such as a hand-edited deadline whose date is not in the
+ * form Tabby writes, are kept as they are so that the storage can write them back instead of losing them.
+ */
+public class LoadResult {
+    private final List<Task> tasks;
+    private final int taskCount;
+    private final int rejectedCount;
+    private final List<String> unreadableLines;
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a LoadResult.
+     *
+     * @param tasks         The tasks parsed from the file, in file order.
+     * @param rejectedCount The number of non-empty lines that could not be parsed.
+     * @param elapsedNanos  The time taken to read and parse the file, in nanoseconds.
+     */
+    public LoadResult(List<Task> tasks, int rejectedCount, long elapsedNanos) {
+        this(tasks, rejectedCount, List.of(), elapsedNanos);
+    }
+
+    /**
+     * Constructs a LoadResult that also holds the task lines that could not be read.
+     *
+     * @param tasks           The tasks parsed from the file, in file order.
+     * @param rejectedCount   The number of non-empty lines that do not look like tasks.
+     * @param unreadableLines The lines that look like tasks but could not be read, in file order.
+     * @param elapsedNanos    The time taken to read and parse the file, in nanoseconds.
+     */
+    public LoadResult(List<Task> tasks, int rejectedCount, List<String> unreadableLines, long elapsedNanos) {
+        this.tasks = tasks;
+        this.taskCount = tasks.size();
+        this.rejectedCount = rejectedCount;
+        this.unreadableLines = List.copyOf(unreadableLines);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns an empty result, used when there is no task file to read.
+     *
+     * @return A LoadResult with no tasks and no rejected lines.
+     */
+    public static LoadResult empty() {
+        return new LoadResult(new ArrayList<>(), 0, 0);
+    }
+
+    /**
+     * Returns the same result holding the loaded tasks in another list, so that the original list
+     * can be let go.
+     *
+     * @param tasks The loaded tasks in their new list.
+     * @return A LoadResult with the given tasks and the counts and timing of this one.
+     */
+    LoadResult withTasks(List<Task> tasks) {
+        return new LoadResult(tasks, rejectedCount, unreadableLines, elapsedNanos);
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns the lines that look like tasks but could not be read.
+     *
+     * @return The unreadable lines, in file order.
+     */
+    public List<String> getUnreadableLines() {
+        return unreadableLines;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Returns a one-line summary of the load.
+     *
+     * @return A string describing how many tasks were loaded, how long it took and how many lines were rejected.
+     */
+    public String summary() {
+        String summary = String.format("Loaded %d tasks in %d ms (%d lines rejected)",
+                taskCount, getElapsedMillis(), rejectedCount);
+        if (!unreadableLines.isEmpty()) {
+            summary += String.format(", %d unreadable tasks kept in the file", unreadableLines.size());
+        }
+        return summary;
+    }
+}
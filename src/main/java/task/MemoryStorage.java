@@ -0,0 +1,48 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Storage that keeps nothing on disk. Loading returns the tasks it was created with and saving
+ * only counts the save, which makes it suitable for tests and for benchmarking TaskManager without disk I/O.
+ */
+public class MemoryStorage implements Storage {
+    private final List<Task> initialTasks;
+    private int saveCount;
+
+    /**
+     * Constructs a MemoryStorage that starts with no tasks.
+     */
+    public MemoryStorage() {
+        this(List.of());
+    }
+
+    /**
+     * Constructs a MemoryStorage that loads the given tasks.
+     *
+     * @param initialTasks The tasks returned by {@link #loadTasks()}.
+     */
+    public MemoryStorage(List<Task> initialTasks) {
+        this.initialTasks = initialTasks;
+    }
+
+    @Override
+    public LoadResult loadTasks() {
+        return new LoadResult(new ArrayList<>(initialTasks), 0, 0);
+    }
+
+    @Override
+    public void saveTasks(List<Task> taskList) {
+        saveCount++;
+    }
+
+    /**
+     * Returns how many times the task list has been saved.
+     *
+     * @return The number of saves.
+     */
+    public int getSaveCount() {
+        return saveCount;
+    }
+}
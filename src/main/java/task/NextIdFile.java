@@ -0,0 +1,64 @@
+package task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A small file kept next to a task file that records the next ID to give a task.
+ * <p>
+ * The highest ID in the task file is not enough on its own: once the task holding it is deleted, the next
+ * start would give its ID to a new task. The recorded ID only ever grows, so an ID is never used twice.
+ */
+class NextIdFile {
+    private NextIdFile() {
+    }
+
+    /**
+     * Returns the file that records the next ID for the given task file.
+     *
+     * @param directory The data directory.
+     * @param fileName  The name of the task file.
+     * @return The file stored next to the task file.
+     */
+    static File of(String directory, String fileName) {
+        return new File(directory, fileName + ".nextid");
+    }
+
+    /**
+     * Reads the recorded next ID.
+     *
+     * @param file The file to read.
+     * @return The recorded ID, or 0 if the file is missing or damaged.
+     */
+    static long read(File file) {
+        if (!file.exists()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(Files.readString(file.toPath(), StandardCharsets.US_ASCII).trim()));
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Records the next ID, replacing the file in one step so that it is never left half written.
+     *
+     * @param file   The file to write.
+     * @param nextId The next ID to give a task.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(File file, long nextId) throws IOException {
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists()) {
+            folder.mkdirs();
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        Files.writeString(tempFile.toPath(), Long.toString(nextId), StandardCharsets.US_ASCII);
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
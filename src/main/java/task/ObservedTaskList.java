@@ -0,0 +1,148 @@
+package task;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A view of a task list that reports every change made through it to a set of indexes,
+ * so the indexes stay consistent however the list is changed.
+ */
+class ObservedTaskList extends AbstractList<Task> {
+    private final List<Task> tasks;
+    private final List<TaskIndex> indexes;
+
+    /**
+     * Constructs an ObservedTaskList and fills the indexes with the tasks already in the list.
+     *
+     * @param tasks   The list to view.
+     * @param indexes The indexes to keep up to date.
+     */
+    ObservedTaskList(List<Task> tasks, List<TaskIndex> indexes) {
+        this.tasks = tasks;
+        this.indexes = indexes;
+        for (TaskIndex index : indexes) {
+            index.clear();
+            for (Task task : tasks) {
+                index.add(task);
+            }
+        }
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = tasks.set(index, task);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.replace(previous, task);
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        tasks.add(index, task);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.add(task);
+        }
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task task = tasks.remove(index);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.remove(task);
+        }
+        modCount++;
+        return task;
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass over the list, rather than shifting or
+     * rebalancing the list once per task.
+     *
+     * @param positions The zero-based positions of the tasks to remove.
+     * @return The number of tasks removed.
+     */
+    int removePositions(BitSet positions) {
+        List<Task> removed;
+        if (tasks instanceof TaskTreeList treeList) {
+            removed = treeList.removePositions(positions);
+        } else {
+            removed = new ArrayList<>();
+            for (int i = positions.previousSetBit(tasks.size() - 1); i >= 0; i = positions.previousSetBit(i - 1)) {
+                removed.add(tasks.remove(i));
+            }
+        }
+        for (TaskIndex taskIndex : indexes) {
+            for (Task task : removed) {
+                taskIndex.remove(task);
+            }
+        }
+        modCount++;
+        return removed.size();
+    }
+
+    @Override
+    public int indexOf(Object task) {
+        return tasks.indexOf(task);
+    }
+
+    @Override
+    public boolean contains(Object task) {
+        return tasks.contains(task);
+    }
+
+    /**
+     * Returns an iterator over the viewed list, so that walking the list costs what it costs
+     * in the viewed list rather than a positional lookup per task.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        Iterator<Task> iterator = tasks.iterator();
+        return new Iterator<>() {
+            private Task last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                for (TaskIndex taskIndex : indexes) {
+                    taskIndex.remove(last);
+                }
+                modCount++;
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        tasks.clear();
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.clear();
+        }
+        modCount++;
+    }
+}
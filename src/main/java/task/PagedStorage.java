@@ -0,0 +1,142 @@
+package task;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import tabby.Ui;
+
+/**
+ * A TextStorage that loads tasks lazily. Loading only builds an index of the task file, and tasks are
+ * read from it on demand through a bounded cache, so memory use stays flat however long the file grows.
+ * <p>
+ * The list returned by {@link #loadTasks()} reads from the task file while it is in use. Additions are
+ * appended to the file, status changes overwrite the done flag in place and deletions rewrite the file,
+ * copying the lines of unchanged tasks without parsing them.
+ */
+public class PagedStorage extends TextStorage {
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final int cacheSize;
+    private final Ui ui;
+
+    /**
+     * Constructs a PagedStorage.
+     *
+     * @param directory The directory where the task file is stored.
+     * @param fileName  The name of the task file.
+     * @param ui        The Ui instance used to display messages and errors.
+     * @param cacheSize The maximum number of parsed tasks kept in memory.
+     */
+    public PagedStorage(String directory, String fileName, Ui ui, int cacheSize) {
+        super(directory, fileName, ui);
+        this.cacheSize = cacheSize;
+        this.ui = ui;
+    }
+
+    /**
+     * Indexes the task file without parsing the tasks in it.
+     *
+     * @return A LoadResult whose task list reads tasks from the file on demand.
+     */
+    @Override
+    public LoadResult loadTasks() {
+        File taskFile = new File(directory, fileName);
+        if (!taskFile.exists()) {
+            // Creates the directory and an empty task file
+            super.loadTasks();
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            PagedTaskList taskList = PagedTaskList.open(taskFile, cacheSize, loadNextId());
+            return new LoadResult(taskList, taskList.getRejectedCount(), taskList.getUnreadableLines(),
+                    System.nanoTime() - startTime);
+        } catch (IOException e) {
+            ui.error("Unable to index task file, loading all tasks: " + e.getMessage());
+            return super.loadTasks();
+        }
+    }
+
+    /**
+     * Rewrites the task file from the list.
+     *
+     * @param taskList The list of tasks to save.
+     */
+    @Override
+    public void saveTasks(List<Task> taskList) {
+        if (!(taskList instanceof PagedTaskList pagedList)) {
+            super.saveTasks(taskList);
+            return;
+        }
+        rewrite(pagedList, false);
+    }
+
+    /**
+     * Rewrites the task file from the list, forcing it to disk before it replaces the old file.
+     *
+     * @param taskList The list of tasks to save.
+     * @throws UncheckedIOException If the tasks could not be written and forced to disk.
+     */
+    @Override
+    public void saveTasksDurably(List<Task> taskList) {
+        if (!(taskList instanceof PagedTaskList pagedList)) {
+            super.saveTasksDurably(taskList);
+            return;
+        }
+        rewrite(pagedList, true);
+    }
+
+    /**
+     * Appends the new task to the end of the task file.
+     */
+    @Override
+    public void taskAdded(List<Task> taskList, Task task) {
+        if (!(taskList instanceof PagedTaskList pagedList)) {
+            super.taskAdded(taskList, task);
+            return;
+        }
+
+        try {
+            pagedList.writeLast();
+        } catch (IOException e) {
+            ui.error("Error writing to file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Overwrites the done flag of the changed task in the task file.
+     */
+    @Override
+    public void taskStatusChanged(List<Task> taskList, int taskNumber) {
+        if (!(taskList instanceof PagedTaskList pagedList)) {
+            super.taskStatusChanged(taskList, taskNumber);
+            return;
+        }
+
+        try {
+            pagedList.writeStatus(taskNumber);
+        } catch (IOException e) {
+            ui.error("Error writing to file: " + e.getMessage());
+        }
+    }
+
+    private void rewrite(PagedTaskList taskList, boolean isDurable) {
+        try {
+            taskList.rewrite(isDurable);
+        } catch (IOException e) {
+            if (isDurable) {
+                throw new UncheckedIOException("Error writing to file: " + e.getMessage(), e);
+            }
+            ui.error("Error writing to file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Does not write a task file snapshot, since that would read every task into memory.
+     */
+    @Override
+    public void close(List<Task> taskList) {
+    }
+}
@@ -0,0 +1,598 @@
+package task;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A task list backed by a text task file that only keeps a small index entry per task in memory.
+ * <p>
+ * Opening the list scans the file once and records the type, done flag, ID, offset and length of every
+ * task line. Each line is parsed once to check that it can be read, but the task is not kept. Lines without
+ * an ID are given one after the highest ID in the file, which is added to the line when the file is next
+ * rewritten. {@link #get(int)} parses a task from the file
+ * when it is first needed and keeps it in a cache that holds at most {@code cacheSize} tasks, evicting the
+ * least recently used.
+ * Tasks that were added or changed and are not in the file yet are held in memory until they are written.
+ * <p>
+ * Lines that do not look like a task are counted as rejected when the list is opened. A line that looks
+ * like a task but cannot be read, such as a deadline with a damaged date, is left out of the list and kept
+ * as it is at the end of the file whenever the file is rewritten, as {@link TextStorage} does.
+ */
+class PagedTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int HEAD_LENGTH = 6;
+    private static final int STATUS_OFFSET = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File taskFile;
+    private final Charset charset = Task.FILE_CHARSET;
+    private final byte[] lineSeparator = System.lineSeparator().getBytes(charset);
+    private final Map<Long, Task> cache;
+
+    private FileChannel channel;
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private boolean[] doneFlags = new boolean[INITIAL_CAPACITY];
+    // IDs that are not in the task file yet are stored negated
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private Task[] pinned = new Task[INITIAL_CAPACITY];
+    private int size;
+    private int rejectedCount;
+    private final List<String> unreadableLines = new ArrayList<>();
+
+    private PagedTaskList(File taskFile, int cacheSize) {
+        this.taskFile = taskFile;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Task> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Opens a task file and builds the index of its task lines.
+     *
+     * @param taskFile  The text task file.
+     * @param cacheSize The maximum number of parsed tasks kept in memory.
+     * @param minNewId  The lowest ID to give a line without one, such as the next ID recorded in storage.
+     * @return A list holding every task in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    static PagedTaskList open(File taskFile, int cacheSize, long minNewId) throws IOException {
+        PagedTaskList taskList = new PagedTaskList(taskFile, cacheSize);
+        taskList.buildIndex(minNewId);
+        taskList.channel = FileChannel.open(taskFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return taskList;
+    }
+
+    /**
+     * Returns the highest task ID in the list.
+     *
+     * @return The highest ID, or 0 if the list is empty.
+     */
+    synchronized long getMaxId() {
+        long maxId = 0;
+        for (int i = 0; i < size; i++) {
+            maxId = Math.max(maxId, Math.abs(ids[i]));
+        }
+        return maxId;
+    }
+
+    /**
+     * Finds the position of the task with the given ID without reading any task from the task file.
+     *
+     * @param id The ID of the task.
+     * @return The zero-based position of the task, or -1 if no task has the ID.
+     */
+    synchronized int indexOfId(long id) {
+        for (int i = 0; i < size; i++) {
+            if (Math.abs(ids[i]) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether some task lines in the task file have no ID yet.
+     *
+     * @return true if the file must be rewritten to store every ID.
+     */
+    synchronized boolean hasUnwrittenIds() {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of lines that were skipped when the list was opened.
+     *
+     * @return The number of non-empty lines that do not look like a task.
+     */
+    int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns the lines that look like a task but could not be read when the list was opened.
+     *
+     * @return The unreadable lines, which are written back after the tasks when the file is rewritten.
+     */
+    List<String> getUnreadableLines() {
+        return List.copyOf(unreadableLines);
+    }
+
+    /**
+     * Returns the number of parsed tasks currently held in memory, including those not yet written.
+     *
+     * @return The number of cached and unwritten tasks.
+     */
+    synchronized int getLoadedCount() {
+        int unwritten = 0;
+        for (int i = 0; i < size; i++) {
+            if (pinned[i] != null) {
+                unwritten++;
+            }
+        }
+        return cache.size() + unwritten;
+    }
+
+    /**
+     * Returns the type of the task at the given position without reading it from the task file.
+     *
+     * @param index The zero-based position of the task.
+     * @return {@code 'T'}, {@code 'D'} or {@code 'E'}.
+     */
+    synchronized char getType(int index) {
+        checkIndex(index, size);
+        return (char) types[index];
+    }
+
+    /**
+     * Returns whether the task at the given position is done without reading it from the task file.
+     *
+     * @param index The zero-based position of the task.
+     * @return true if the task is marked as done.
+     */
+    synchronized boolean isDone(int index) {
+        checkIndex(index, size);
+        return doneFlags[index];
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the task at the given position, reading it from the task file if it is not in memory.
+     *
+     * @param index The zero-based position of the task.
+     * @return The task.
+     */
+    @Override
+    public synchronized Task get(int index) {
+        checkIndex(index, size);
+        if (pinned[index] != null) {
+            return pinned[index];
+        }
+
+        Task task = cache.get(offsets[index]);
+        if (task == null) {
+            String data = new String(readLine(offsets[index], lengths[index]), charset);
+            // Every indexed line was parsed when the list was opened, so this cannot fail
+            task = TextStorage.parseTask(data);
+            task.setId(Math.abs(ids[index]));
+            cache.put(offsets[index], task);
+        }
+        return task;
+    }
+
+    /**
+     * Replaces the task at the given position. The task is kept in memory until it is written.
+     */
+    @Override
+    public synchronized Task set(int index, Task task) {
+        Task previous = get(index);
+        pinned[index] = task;
+        types[index] = typeOf(task);
+        doneFlags[index] = task.isDone;
+        if (Math.abs(ids[index]) != task.id) {
+            ids[index] = -task.id;
+        }
+        return previous;
+    }
+
+    /**
+     * Inserts a task at the given position. The task is kept in memory until it is written.
+     */
+    @Override
+    public synchronized void add(int index, Task task) {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+        offsets[index] = -1;
+        lengths[index] = 0;
+        types[index] = typeOf(task);
+        doneFlags[index] = task.isDone;
+        ids[index] = -task.id;
+        pinned[index] = task;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public synchronized Task remove(int index) {
+        Task task = get(index);
+        if (pinned[index] == null) {
+            cache.remove(offsets[index]);
+        }
+        shift(index + 1, index, size - index - 1);
+        pinned[--size] = null;
+        modCount++;
+        return task;
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass, moving the index entries of the tasks that are
+     * kept into place once, without reading any task from the task file.
+     *
+     * @param positions The zero-based positions of the tasks to remove.
+     * @return The number of tasks removed.
+     */
+    synchronized int removePositions(BitSet positions) {
+        for (int i = positions.nextSetBit(0); i >= 0 && i < size; i = positions.nextSetBit(i + 1)) {
+            if (pinned[i] == null) {
+                cache.remove(offsets[i]);
+            }
+        }
+        // Move each run of kept tasks down over the removed ones before it
+        int kept = 0;
+        int start = positions.nextClearBit(0);
+        while (start < size) {
+            int end = positions.nextSetBit(start);
+            end = end < 0 ? size : Math.min(end, size);
+            shift(start, kept, end - start);
+            kept += end - start;
+            start = positions.nextClearBit(end);
+        }
+        int removed = size - kept;
+        Arrays.fill(pinned, kept, size, null);
+        size = kept;
+        if (removed > 0) {
+            modCount++;
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(pinned, 0, size, null);
+        cache.clear();
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Appends the last task in the list to the end of the task file.
+     *
+     * @throws IOException If the task file cannot be written.
+     */
+    synchronized void writeLast() throws IOException {
+        int index = size - 1;
+        if (index < 0 || pinned[index] == null) {
+            return;
+        }
+
+        byte[] line = pinned[index].toFileBytes();
+        long position = channel.size();
+        if (position > 0 && !endsWithLineBreak(position)) {
+            position += writeFully(ByteBuffer.wrap(lineSeparator), position);
+        }
+        writeFully(ByteBuffer.wrap(line), position);
+        writeFully(ByteBuffer.wrap(lineSeparator), position + line.length);
+        offsets[index] = position;
+        lengths[index] = line.length;
+        ids[index] = pinned[index].id;
+        cache.put(position, pinned[index]);
+        pinned[index] = null;
+    }
+
+    /**
+     * Writes the done flag of a task whose status changed straight into its line in the task file.
+     * A task that is not in the file yet causes the whole file to be rewritten.
+     *
+     * @param index The zero-based position of the task.
+     * @throws IOException If the task file cannot be written.
+     */
+    synchronized void writeStatus(int index) throws IOException {
+        checkIndex(index, size);
+        if (offsets[index] < 0) {
+            rewrite(false);
+            return;
+        }
+
+        byte status = (byte) (doneFlags[index] ? 'X' : ' ');
+        writeFully(ByteBuffer.wrap(new byte[] {status}), offsets[index] + STATUS_OFFSET);
+        if (pinned[index] != null) {
+            cache.put(offsets[index], pinned[index]);
+            pinned[index] = null;
+        }
+    }
+
+    /**
+     * Rewrites the task file from the list. Lines of unchanged tasks are copied without being parsed,
+     * adding their ID if the line has none.
+     * The file is written to a temporary file first and then moved into place.
+     *
+     * @param isDurable Whether to force the new file to disk before moving it into place.
+     * @throws IOException If the task file cannot be written.
+     */
+    synchronized void rewrite(boolean isDurable) throws IOException {
+        File tempFile = new File(taskFile.getPath() + ".tmp");
+        long[] newOffsets = new long[offsets.length];
+        int[] newLengths = new int[lengths.length];
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE)) {
+            long position = 0;
+            for (int i = 0; i < size; i++) {
+                byte[] line;
+                if (pinned[i] != null) {
+                    line = pinned[i].toFileBytes();
+                } else if (ids[i] < 0) {
+                    String data = new String(readLine(offsets[i], lengths[i]), charset);
+                    line = (data + Task.ID_SEPARATOR + -ids[i]).getBytes(charset);
+                } else {
+                    line = readLine(offsets[i], lengths[i]);
+                }
+                out.write(line);
+                out.write(lineSeparator);
+                newOffsets[i] = position;
+                newLengths[i] = line.length;
+                position += line.length + lineSeparator.length;
+            }
+            for (String unreadable : unreadableLines) {
+                out.write(unreadable.getBytes(charset));
+                out.write(lineSeparator);
+            }
+        }
+
+        channel.close();
+        try {
+            if (isDurable) {
+                DurableFiles.replace(tempFile, taskFile);
+            } else {
+                Files.move(tempFile.toPath(), taskFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            channel = FileChannel.open(taskFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        offsets = newOffsets;
+        lengths = newLengths;
+        cache.clear();
+        for (int i = 0; i < size; i++) {
+            ids[i] = Math.abs(ids[i]);
+            if (pinned[i] != null) {
+                cache.put(offsets[i], pinned[i]);
+                pinned[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Scans the task file once, recording where each task line starts and ends and the ID at its end.
+     * Leading and trailing whitespace is not part of a line, as when the file is parsed.
+     *
+     * @param minNewId The lowest ID to give a line without one.
+     */
+    private void buildIndex(long minNewId) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] line = new byte[256];
+        int lineLength = 0;
+        long lineStart = -1;
+        long lineEnd = -1;
+        long position = 0;
+        IdScanner idScanner = new IdScanner();
+
+        try (InputStream in = new FileInputStream(taskFile)) {
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                for (int i = 0; i < count; i++, position++) {
+                    byte b = buffer[i];
+                    if (b == '\n') {
+                        indexLine(line, lineStart, lineEnd, idScanner.finish());
+                        lineLength = 0;
+                        lineStart = -1;
+                        continue;
+                    }
+                    if (lineStart < 0 && (b & 0xFF) <= ' ') {
+                        continue;
+                    }
+                    if (lineStart < 0) {
+                        lineStart = position;
+                    }
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                    idScanner.accept(b);
+                    if ((b & 0xFF) > ' ') {
+                        lineEnd = position + 1;
+                    }
+                }
+            }
+        }
+        indexLine(line, lineStart, lineEnd, idScanner.finish());
+
+        long maxId = Math.max(getMaxId(), minNewId - 1);
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == 0) {
+                ids[i] = -++maxId;
+            }
+        }
+    }
+
+    /**
+     * Picks out the ID at the end of a line, written as a tab, {@code #} and the digits of the ID.
+     */
+    private static class IdScanner {
+        private static final int NONE = 0;
+        private static final int TAB = 1;
+        private static final int HASH = 2;
+        private static final int DIGITS = 3;
+        private static final int TRAILING_SPACE = 4;
+
+        private int state = NONE;
+        private long id;
+
+        private void accept(byte b) {
+            if (b == '\t') {
+                state = state == DIGITS || state == TRAILING_SPACE ? TRAILING_SPACE : TAB;
+            } else if (state == TAB && b == '#') {
+                state = HASH;
+                id = 0;
+            } else if ((state == HASH || state == DIGITS) && b >= '0' && b <= '9' && id < Long.MAX_VALUE / 10) {
+                state = DIGITS;
+                id = id * 10 + (b - '0');
+            } else if ((state == DIGITS || state == TRAILING_SPACE) && (b & 0xFF) <= ' ') {
+                state = TRAILING_SPACE;
+            } else {
+                state = NONE;
+            }
+        }
+
+        private long finish() {
+            long lineId = state == DIGITS || state == TRAILING_SPACE ? id : 0;
+            state = NONE;
+            return lineId;
+        }
+    }
+
+    /**
+     * Adds a scanned line to the index if it starts like a task, such as {@code [D][X] }, and can be parsed.
+     * The bytes of the line start at the beginning of {@code line}.
+     */
+    private void indexLine(byte[] line, long lineStart, long lineEnd, long id) {
+        if (lineStart < 0) {
+            return;
+        }
+        int length = (int) (lineEnd - lineStart);
+        boolean isTask = length > HEAD_LENGTH + 1
+                && line[0] == '[' && (line[1] == 'T' || line[1] == 'D' || line[1] == 'E') && line[2] == ']'
+                && line[3] == '[' && (line[4] == ' ' || line[4] == 'X') && line[5] == ']';
+        if (!isTask) {
+            rejectedCount++;
+            return;
+        }
+        String data = new String(line, 0, length, charset);
+        try {
+            if (TextStorage.parseTask(data) == null) {
+                rejectedCount++;
+                return;
+            }
+        } catch (IllegalStateException e) {
+            unreadableLines.add(data);
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        offsets[size] = lineStart;
+        lengths[size] = (int) (lineEnd - lineStart);
+        types[size] = line[1];
+        doneFlags[size] = line[4] == 'X';
+        ids[size] = id;
+        size++;
+    }
+
+    private byte[] readLine(long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Task file is shorter than expected");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + taskFile.getName(), e);
+        }
+        return buffer.array();
+    }
+
+    private boolean endsWithLineBreak(long fileSize) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, fileSize - 1);
+        return last.get(0) == '\n';
+    }
+
+    private int writeFully(ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= offsets.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, offsets.length * 2);
+        offsets = Arrays.copyOf(offsets, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        doneFlags = Arrays.copyOf(doneFlags, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        pinned = Arrays.copyOf(pinned, newCapacity);
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(offsets, from, offsets, to, length);
+        System.arraycopy(lengths, from, lengths, to, length);
+        System.arraycopy(types, from, types, to, length);
+        System.arraycopy(doneFlags, from, doneFlags, to, length);
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(pinned, from, pinned, to, length);
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+
+    private static byte typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return 'D';
+        } else if (task instanceof Event) {
+            return 'E';
+        } else {
+            return 'T';
+        }
+    }
+}
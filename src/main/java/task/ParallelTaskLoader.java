@@ -0,0 +1,165 @@
+package task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads large task files by reading them into memory in one go and parsing line-aligned chunks in parallel
+ * on the common fork-join pool. Tasks are returned in the same order as the lines in the file.
+ * <p>
+ * The file is read into a heap array rather than memory-mapped: a mapping stays open until the buffer is
+ * garbage collected, and on Windows an open mapping stops the next save from replacing the file.
+ */
+class ParallelTaskLoader {
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelTaskLoader() {
+    }
+
+    /**
+     * Loads all tasks from the given file.
+     *
+     * @param taskFile The task file to load.
+     * @return A LoadResult holding the tasks in file order and the number of rejected lines.
+     * @throws IOException If the file cannot be read.
+     */
+    static LoadResult load(File taskFile) throws IOException {
+        long startTime = System.nanoTime();
+        long size = taskFile.length();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Task file is too large to read in one go: " + size + " bytes");
+        }
+        byte[] bytes = Files.readAllBytes(taskFile.toPath());
+        int[] bounds = chunkBounds(bytes);
+        ChunkResult[] results = new ChunkResult[bounds.length - 1];
+        ForkJoinPool.commonPool().invoke(new ParseChunks(bytes, bounds, results, 0, results.length));
+
+        int taskCount = 0;
+        int rejectedCount = 0;
+        for (ChunkResult result : results) {
+            taskCount += result.tasks.size();
+            rejectedCount += result.rejectedCount;
+        }
+        ArrayList<Task> taskList = new ArrayList<>(taskCount);
+        ArrayList<String> unreadableLines = new ArrayList<>();
+        for (ChunkResult result : results) {
+            taskList.addAll(result.tasks);
+            unreadableLines.addAll(result.unreadableLines);
+        }
+        return new LoadResult(taskList, rejectedCount, unreadableLines, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Splits the file contents into roughly equal chunks that each end just after a line break.
+     *
+     * @param bytes The contents of the file.
+     * @return The chunk boundaries; chunk {@code i} covers bytes {@code [bounds[i], bounds[i + 1])}.
+     */
+    private static int[] chunkBounds(byte[] bytes) {
+        int size = bytes.length;
+        int threads = ForkJoinPool.commonPool().getParallelism();
+        int chunkCount = Math.max(1, Math.min(size / MIN_CHUNK_SIZE, threads * CHUNKS_PER_THREAD));
+        int chunkSize = size / chunkCount;
+
+        int[] bounds = new int[chunkCount + 1];
+        int count = 1;
+        for (int i = 1; i < chunkCount; i++) {
+            int position = Math.max(i * chunkSize, bounds[count - 1]);
+            while (position < size && bytes[position] != '\n') {
+                position++;
+            }
+            if (position + 1 >= size) {
+                break;
+            }
+            bounds[count++] = position + 1;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Parses every line in one chunk of the file contents.
+     *
+     * @param bytes  The contents of the file.
+     * @param start  The offset of the first byte in the chunk.
+     * @param end    The offset just past the last byte in the chunk.
+     * @return The tasks parsed from the chunk, the number of rejected lines and the unreadable task lines.
+     */
+    private static ChunkResult parseChunk(byte[] bytes, int start, int end) {
+        Charset charset = Charset.defaultCharset();
+        ChunkResult result = new ChunkResult();
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            String data = new String(bytes, lineStart, lineEnd - lineStart, charset).trim();
+            if (!data.isEmpty()) {
+                Task task;
+                try {
+                    task = TextStorage.parseTask(data);
+                } catch (IllegalStateException e) {
+                    result.unreadableLines.add(data);
+                    lineStart = lineEnd + 1;
+                    continue;
+                }
+                if (task == null) {
+                    result.rejectedCount++;
+                } else {
+                    result.tasks.add(task);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return result;
+    }
+
+    /**
+     * The tasks, rejected line count and unreadable task lines from a single chunk.
+     */
+    private static class ChunkResult {
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<String> unreadableLines = new ArrayList<>();
+        private int rejectedCount;
+    }
+
+    /**
+     * Parses a range of chunks, splitting the range in half until a single chunk is left.
+     * Each chunk writes its result into its own slot so the original order is kept.
+     */
+    private static class ParseChunks extends RecursiveAction {
+        private final byte[] bytes;
+        private final int[] bounds;
+        private final ChunkResult[] results;
+        private final int from;
+        private final int to;
+
+        ParseChunks(byte[] bytes, int[] bounds, ChunkResult[] results, int from, int to) {
+            this.bytes = bytes;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = parseChunk(bytes, bounds[from], bounds[from + 1]);
+                return;
+            }
+            int middle = (from + to) / 2;
+            invokeAll(new ParseChunks(bytes, bounds, results, from, middle),
+                    new ParseChunks(bytes, bounds, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps the deadlines and events that are not done ordered by the time they are due: the end of a
+ * deadline or the start of an event. Finding the next or most overdue tasks takes logarithmic time
+ * plus the number of tasks returned.
+ */
+class ReminderIndex implements TaskIndex {
+    private final TreeMap<Long, List<Task>> tasksByTime = new TreeMap<>();
+
+    /**
+     * Builds an index over the given tasks.
+     *
+     * @param tasks The tasks to index.
+     * @return An index holding the tasks that need reminders.
+     */
+    static ReminderIndex of(List<Task> tasks) {
+        ReminderIndex index = new ReminderIndex();
+        if (tasks instanceof ColumnarTaskList columnarList) {
+            // Only build the tasks that can be in the index
+            for (int i = 0; i < columnarList.size(); i++) {
+                if (columnarList.isPending(i)) {
+                    index.add(columnarList.get(i));
+                }
+            }
+            return index;
+        }
+        for (Task task : tasks) {
+            index.add(task);
+        }
+        return index;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (!task.isDone && !(task instanceof ToDo)) {
+            tasksByTime.computeIfAbsent(dueTime(task), time -> new ArrayList<>(1)).add(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        if (task instanceof ToDo) {
+            return;
+        }
+        long time = dueTime(task);
+        List<Task> tasks = tasksByTime.get(time);
+        if (tasks != null && tasks.remove(task) && tasks.isEmpty()) {
+            tasksByTime.remove(time);
+        }
+    }
+
+    @Override
+    public void clear() {
+        tasksByTime.clear();
+    }
+
+    /**
+     * Returns the tasks due from now until the given time, soonest first.
+     *
+     * @param now   The current time, in epoch seconds.
+     * @param until The end of the window, in epoch seconds, exclusive.
+     * @param limit The maximum number of tasks to return.
+     * @return The upcoming tasks.
+     */
+    List<Task> upcoming(long now, long until, int limit) {
+        if (until <= now) {
+            return List.of();
+        }
+        return collect(tasksByTime.subMap(now, true, until, false), limit);
+    }
+
+    /**
+     * Returns the tasks that were due before now, most recently due first.
+     *
+     * @param now   The current time, in epoch seconds.
+     * @param limit The maximum number of tasks to return.
+     * @return The overdue tasks.
+     */
+    List<Task> overdue(long now, int limit) {
+        return collect(tasksByTime.headMap(now, false).descendingMap(), limit);
+    }
+
+    private static List<Task> collect(NavigableMap<Long, List<Task>> tasksByTime, int limit) {
+        List<Task> result = new ArrayList<>();
+        for (Map.Entry<Long, List<Task>> entry : tasksByTime.entrySet()) {
+            for (Task task : entry.getValue()) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private static long dueTime(Task task) {
+        return task instanceof Event event ? event.start : ((Deadline) task).end;
+    }
+}
@@ -0,0 +1,359 @@
+package task;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import tabby.Ui;
+
+/**
+ * A Storage that splits the task list across segment files of at most {@code segmentSize} tasks each,
+ * so that a change only rewrites the segment holding the affected task and an addition only appends
+ * to the last segment. A small manifest lists the segment files in order.
+ * <p>
+ * Segments are stored in the text format inside a {@code <fileName>.segments} directory. On first use an
+ * existing text task file is split into segments. Segments are loaded concurrently on startup.
+ */
+public class SegmentedStorage implements DurableStorage {
+    public static final int DEFAULT_SEGMENT_SIZE = 4096;
+
+    private static final String MANIFEST_FILENAME = "manifest";
+    private static final String NEXT_ID_FILENAME = "nextid";
+
+    private final File legacyFile;
+    private final File segmentDirectory;
+    private final File manifestFile;
+    private final int segmentSize;
+    private final Ui ui;
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    private int nextSegmentId;
+
+    /**
+     * Constructs a SegmentedStorage.
+     *
+     * @param directory   The data directory.
+     * @param fileName    The name of the text task file; segments are kept next to it.
+     * @param ui          The Ui instance used to display messages and errors.
+     * @param segmentSize The maximum number of tasks in a segment.
+     */
+    public SegmentedStorage(String directory, String fileName, Ui ui, int segmentSize) {
+        this.legacyFile = new File(directory, fileName);
+        this.segmentDirectory = new File(directory, fileName + ".segments");
+        this.manifestFile = new File(segmentDirectory, MANIFEST_FILENAME);
+        this.segmentSize = segmentSize;
+        this.ui = ui;
+    }
+
+    /**
+     * Loads every segment listed in the manifest, in parallel, and joins them in manifest order.
+     * If there is no manifest yet, the text task file is loaded and split into segments.
+     *
+     * @return A LoadResult holding the loaded tasks.
+     */
+    @Override
+    public LoadResult loadTasks() {
+        long startTime = System.nanoTime();
+        segments.clear();
+        if (!manifestFile.exists()) {
+            return migrateLegacyFile();
+        }
+
+        try {
+            for (String line : Files.readAllLines(manifestFile.toPath())) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    segments.add(new Segment(line.trim()));
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    ui.error("Skipping unknown segment in manifest: " + line);
+                }
+            }
+        } catch (IOException e) {
+            ui.error("Unable to read segment manifest: " + manifestFile.getAbsolutePath());
+            return LoadResult.empty();
+        }
+
+        List<LoadResult> results = segments.parallelStream()
+                .map(this::loadSegment)
+                .collect(Collectors.toList());
+
+        ArrayList<Task> taskList = new ArrayList<>();
+        int rejectedCount = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            LoadResult result = results.get(i);
+            segments.get(i).count = result.getTasks().size();
+            taskList.addAll(result.getTasks());
+            rejectedCount += result.getRejectedCount();
+        }
+        segments.removeIf(segment -> segment.count == 0);
+        nextSegmentId = segments.stream().mapToInt(segment -> segment.id + 1).max().orElse(0);
+        return new LoadResult(taskList, rejectedCount, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Rewrites every segment from the given list.
+     *
+     * @param taskList The list of tasks to save.
+     */
+    @Override
+    public void saveTasks(List<Task> taskList) {
+        try {
+            save(taskList, false);
+        } catch (IOException e) {
+            ui.error("Error writing to segments: " + segmentDirectory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Rewrites every segment from the given list, forcing each segment and then the manifest to disk
+     * before it replaces the old file.
+     *
+     * @param taskList The list of tasks to save.
+     * @throws UncheckedIOException If the segments could not be written and forced to disk.
+     */
+    @Override
+    public void saveTasksDurably(List<Task> taskList) {
+        try {
+            save(taskList, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing to segments: " + segmentDirectory.getAbsolutePath(), e);
+        }
+    }
+
+    private void save(List<Task> taskList, boolean isDurable) throws IOException {
+        segmentDirectory.mkdirs();
+        ArrayList<Segment> oldSegments = new ArrayList<>(segments);
+        segments.clear();
+        for (int start = 0; start < taskList.size(); start += segmentSize) {
+            Segment segment = new Segment(nextSegmentId++);
+            List<Task> tasks = taskList.subList(start, Math.min(start + segmentSize, taskList.size()));
+            writeSegment(segment, tasks, isDurable);
+            segments.add(segment);
+        }
+        writeManifest(isDurable);
+        for (Segment segment : oldSegments) {
+            Files.deleteIfExists(segment.file().toPath());
+        }
+    }
+
+    /**
+     * Appends the task to the last segment, starting a new segment if the last one is full.
+     */
+    @Override
+    public void taskAdded(List<Task> taskList, Task task) {
+        try {
+            Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            boolean isNewSegment = tail == null || tail.count >= segmentSize;
+            if (isNewSegment) {
+                segmentDirectory.mkdirs();
+                tail = new Segment(nextSegmentId++);
+                segments.add(tail);
+            }
+
+            try (OutputStream out = new FileOutputStream(tail.file(), true)) {
+                out.write(task.toFileBytes());
+                out.write(System.lineSeparator().getBytes(Task.FILE_CHARSET));
+            }
+            tail.count++;
+            if (isNewSegment) {
+                writeManifest(false);
+            }
+        } catch (IOException e) {
+            ui.error("Error writing to segments: " + segmentDirectory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Rewrites only the segment that held the deleted task, dropping the segment if it is now empty.
+     */
+    @Override
+    public void taskDeleted(List<Task> taskList, int taskNumber) {
+        int index = findSegment(taskNumber);
+        int start = segmentStart(index);
+        Segment segment = segments.get(index);
+        segment.count--;
+
+        try {
+            if (segment.count == 0) {
+                segments.remove(index);
+                writeManifest(false);
+                Files.deleteIfExists(segment.file().toPath());
+            } else {
+                writeSegment(segment, taskList.subList(start, start + segment.count), false);
+            }
+        } catch (IOException e) {
+            ui.error("Error writing to segments: " + segmentDirectory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Rewrites only the segment that holds the changed task.
+     */
+    @Override
+    public void taskStatusChanged(List<Task> taskList, int taskNumber) {
+        int index = findSegment(taskNumber);
+        int start = segmentStart(index);
+        Segment segment = segments.get(index);
+
+        try {
+            writeSegment(segment, taskList.subList(start, start + segment.count), false);
+        } catch (IOException e) {
+            ui.error("Error writing to segments: " + segmentDirectory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Returns the next ID recorded in the segment directory.
+     *
+     * @return The recorded next ID, or 0 if none is recorded.
+     */
+    @Override
+    public long loadNextId() {
+        return NextIdFile.read(new File(segmentDirectory, NEXT_ID_FILENAME));
+    }
+
+    /**
+     * Records the next ID in the segment directory.
+     *
+     * @param nextId The next ID to give a task.
+     */
+    @Override
+    public void saveNextId(long nextId) {
+        File nextIdFile = new File(segmentDirectory, NEXT_ID_FILENAME);
+        try {
+            NextIdFile.write(nextIdFile, nextId);
+        } catch (IOException e) {
+            ui.error("Error writing to segments: " + segmentDirectory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Splits the text task file into segments the first time this storage is used.
+     *
+     * @return The result of loading the text task file.
+     */
+    private LoadResult migrateLegacyFile() {
+        if (!legacyFile.exists()) {
+            return LoadResult.empty();
+        }
+        LoadResult result = new TextStorage(legacyFile.getParent(), legacyFile.getName(), ui).loadTasks();
+        saveTasks(result.getTasks());
+        return result;
+    }
+
+    private LoadResult loadSegment(Segment segment) {
+        long startTime = System.nanoTime();
+        ArrayList<Task> taskList = new ArrayList<>();
+        int rejectedCount = 0;
+        try {
+            for (String line : Files.readAllLines(segment.file().toPath(), Charset.defaultCharset())) {
+                String data = line.trim();
+                if (data.isEmpty()) {
+                    continue;
+                }
+                Task task;
+                try {
+                    task = TextStorage.parseTask(data);
+                } catch (IllegalStateException e) {
+                    // Segments are only written by Tabby, so a damaged line is rejected like any other
+                    task = null;
+                }
+                if (task == null) {
+                    rejectedCount++;
+                } else {
+                    taskList.add(task);
+                }
+            }
+        } catch (IOException e) {
+            ui.error("Unable to read segment: " + segment.file().getAbsolutePath());
+        }
+        return new LoadResult(taskList, rejectedCount, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Writes a segment to a temporary file and moves it into place, forcing it to disk first if asked.
+     */
+    private void writeSegment(Segment segment, List<Task> tasks, boolean isDurable) throws IOException {
+        File tempFile = new File(segmentDirectory, segment.fileName() + ".tmp");
+        TextStorage.writeTasks(tempFile, tasks);
+        moveIntoPlace(tempFile, segment.file(), isDurable);
+    }
+
+    /**
+     * Writes the list of segment files to a temporary file and moves it over the manifest, forcing it to
+     * disk first if asked.
+     */
+    private void writeManifest(boolean isDurable) throws IOException {
+        File tempFile = new File(segmentDirectory, MANIFEST_FILENAME + ".tmp");
+        List<String> lines = segments.stream().map(Segment::fileName).collect(Collectors.toList());
+        Files.write(tempFile.toPath(), lines);
+        moveIntoPlace(tempFile, manifestFile, isDurable);
+    }
+
+    private static void moveIntoPlace(File tempFile, File file, boolean isDurable) throws IOException {
+        if (isDurable) {
+            DurableFiles.replace(tempFile, file);
+        } else {
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Returns the index of the segment holding the task at the given position.
+     *
+     * @param taskNumber The zero-based position of the task.
+     * @return The index of the segment in {@code segments}.
+     */
+    private int findSegment(int taskNumber) {
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            start += segments.get(i).count;
+            if (taskNumber < start) {
+                return i;
+            }
+        }
+        throw new IndexOutOfBoundsException("No segment holds task " + taskNumber);
+    }
+
+    private int segmentStart(int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start += segments.get(i).count;
+        }
+        return start;
+    }
+
+    /**
+     * A segment file and the number of tasks it currently holds.
+     */
+    private class Segment {
+        private final int id;
+        private int count;
+
+        Segment(int id) {
+            this.id = id;
+        }
+
+        Segment(String fileName) {
+            this(Integer.parseInt(fileName.substring("segment-".length(), fileName.length() - ".txt".length())));
+        }
+
+        String fileName() {
+            return String.format("segment-%06d.txt", id);
+        }
+
+        File file() {
+            return new File(segmentDirectory, fileName());
+        }
+    }
+}
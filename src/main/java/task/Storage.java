@@ -1,114 +1,82 @@
 package task;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Scanner;
-
-import action.Action;
-import action.AddAction;
-import action.Parser;
-import exceptions.TabbyException;
-import tabby.Ui;
+import java.util.List;
 
 /**
- * The Storage class is responsible for managing file I/O operations related to task storage.
- * It handles loading tasks from a file and saving tasks to a file.
+ * A backend that loads and saves the task list.
+ * TaskManager reports every mutation through the {@code task*} methods, so backends that can
+ * persist a single change cheaply override them; by default each change saves the whole list.
+ * Backends that can force their writes to disk also implement {@link DurableStorage}.
  */
-public class Storage {
-    public final String directory;
-    public final String fileName;
-    private final Ui ui;
+public interface Storage {
 
     /**
-     * Constructs a Storage object to manage task files.
+     * Loads all stored tasks.
      *
-     * @param directory The directory where the task file is stored.
-     * @param fileName  The name of the file that contains the tasks.
-     * @param ui        The Ui instance used to display messages and errors.
+     * @return A LoadResult holding the loaded tasks, the number of rejected records and the time taken.
      */
-    public Storage(String directory, String fileName, Ui ui) {
-        this.directory = directory;
-        this.fileName = fileName;
-        this.ui = ui;
-    }
+    LoadResult loadTasks();
 
     /**
-     * Loads tasks from the task file into the provided TaskManager.
+     * Saves the whole list of tasks.
      *
-     * @param taskManager The TaskManager instance to which the tasks will be added.
-     * @return An ArrayList of tasks loaded from the file.
+     * @param taskList The list of tasks to save.
      */
-    public ArrayList<Task> loadTasks(TaskManager taskManager) {
-        ArrayList<Task> taskList = new ArrayList<>();
-        File folder = new File(directory);
-
-        // Ensure the directory exists
-        if (!folder.exists()) {
-            folder.mkdir();
-        }
+    void saveTasks(List<Task> taskList);
 
-        File taskFile = new File(String.format("%s/%s", directory, fileName));
-
-        // Create the task file if it doesn't exist
-        if (!taskFile.exists()) {
-            try {
-                taskFile.createNewFile();
-            } catch (IOException e) {
-                ui.error("Error creating file: " + taskFile.getAbsolutePath());
-            }
-            return taskList;
-        }
-
-        // Read tasks from the file
-        try (Scanner scanner = new Scanner(taskFile)) {
-            while (scanner.hasNext()) {
-                String data = scanner.nextLine().trim();
-                if (!Parser.validateInput(data)) {
-                    HashMap<String, String> taskDetails = Parser.parseFileRead(data);
-                    Action action = new AddAction(
-                            new String[]{taskDetails.get("task"), taskDetails.get("description")},
-                            Boolean.parseBoolean(taskDetails.get("status")),
-                            false,
-                            ui
-                    );
-                    action.runTask(taskManager);
-                }
-            }
-        } catch (FileNotFoundException e) {
-            ui.error("File not found - " + taskFile.getAbsolutePath());
-        } catch (TabbyException e) {
-            ui.error("Unable to process task file: " + e.getMessage());
-        }
+    /**
+     * Returns the next ID recorded by {@link #saveNextId(long)}, which stays above the IDs of deleted tasks.
+     *
+     * @return The recorded next ID, or 0 if none is recorded.
+     */
+    default long loadNextId() {
+        return 0;
+    }
 
-        return taskList;
+    /**
+     * Records the next ID to give a task, so that the IDs of deleted tasks are not given out again after
+     * the next start. Called before tasks are deleted.
+     *
+     * @param nextId The next ID to give a task.
+     */
+    default void saveNextId(long nextId) {
     }
 
     /**
-     * Saves the list of tasks to the task file.
+     * Records that a task was added to the end of the list.
      *
-     * @param taskList The list of tasks to save.
+     * @param taskList The list of tasks after the addition.
+     * @param task     The task that was added.
      */
-    public void saveTasks(ArrayList<Task> taskList) {
-        File folder = new File(this.directory);
+    default void taskAdded(List<Task> taskList, Task task) {
+        saveTasks(taskList);
+    }
 
-        // Ensure the directory exists
-        if (!folder.exists()) {
-            folder.mkdir();
-        }
+    /**
+     * Records that a task was removed from the list.
+     *
+     * @param taskList   The list of tasks after the removal.
+     * @param taskNumber The zero-based index the task was removed from.
+     */
+    default void taskDeleted(List<Task> taskList, int taskNumber) {
+        saveTasks(taskList);
+    }
 
-        File taskFile = new File(folder, this.fileName);
+    /**
+     * Records that a task was marked as done or not done.
+     *
+     * @param taskList   The list of tasks after the change.
+     * @param taskNumber The zero-based index of the task that changed.
+     */
+    default void taskStatusChanged(List<Task> taskList, int taskNumber) {
+        saveTasks(taskList);
+    }
 
-        // Write tasks to the file
-        try (FileWriter writer = new FileWriter(taskFile)) {
-            for (Task task : taskList) {
-                writer.write(task.toString() + System.lineSeparator());
-            }
-        } catch (IOException e) {
-            ui.error("Error writing to file: " + taskFile.getAbsolutePath());
-        }
+    /**
+     * Releases the backend when the application exits. All changes have been saved by then.
+     *
+     * @param taskList The final list of tasks.
+     */
+    default void close(List<Task> taskList) {
     }
 }
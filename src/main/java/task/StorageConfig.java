@@ -0,0 +1,172 @@
+package task;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+import tabby.Ui;
+
+/**
+ * Reads storage settings and creates the selected Storage backend.
+ * <p>
+ * Settings are read from {@code tabby.properties} in the data directory. A system property named
+ * {@code tabby.<key>} overrides the file, e.g. {@code -Dtabby.storage=journal}. The supported keys are:
+ * <ul>
+ * <li>{@code storage}: {@code text} (default), {@code journal}, {@code segmented}, {@code paged},
+ * {@code binary} or {@code memory}</li>
+ * <li>{@code journal.compactBytes}: journal size after which it is folded into the task file</li>
+ * <li>{@code segment.size}: the maximum number of tasks in a segment file</li>
+ * <li>{@code paged.cacheSize}: the maximum number of tasks a paged storage keeps in memory</li>
+ * <li>{@code layout}: {@code objects} (default), {@code columnar}, which keeps the tasks in memory as
+ * columns of primitives to save memory at the cost of the search indexes, or {@code offheap}, which also
+ * keeps their descriptions outside the Java heap</li>
+ * <li>{@code writeBehindMillis}: if positive, save on a background thread at most once per interval</li>
+ * <li>{@code durable}: if {@code true}, force every change to disk before confirming it. Every backend
+ * except {@code memory} supports this</li>
+ * <li>{@code groupCommitMillis}: how long a durable save waits for more changes to join it</li>
+ * </ul>
+ */
+public class StorageConfig {
+    public static final String CONFIG_FILENAME = "tabby.properties";
+    public static final String TEXT_FILENAME = "tabby_data.txt";
+    public static final String BINARY_FILENAME = "tabby_data.bin";
+
+    private static final String PROPERTY_PREFIX = "tabby.";
+
+    private final String directory;
+    private final Properties properties;
+
+    /**
+     * Constructs a StorageConfig from already loaded settings.
+     *
+     * @param directory  The data directory.
+     * @param properties The settings read from the config file.
+     */
+    public StorageConfig(String directory, Properties properties) {
+        this.directory = directory;
+        this.properties = properties;
+    }
+
+    /**
+     * Reads the config file in the given data directory, if there is one.
+     *
+     * @param directory The data directory.
+     * @return The storage settings.
+     * @throws UncheckedIOException If the config file exists but cannot be read, so that Tabby does not start
+     *                              with settings other than the ones asked for.
+     */
+    public static StorageConfig load(String directory) {
+        Properties properties = new Properties();
+        File configFile = new File(directory, CONFIG_FILENAME);
+        if (configFile.exists()) {
+            try (Reader reader = new FileReader(configFile)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read config file: " + configFile.getAbsolutePath(), e);
+            }
+        }
+        return new StorageConfig(directory, properties);
+    }
+
+    /**
+     * Returns a setting, preferring the system property over the config file.
+     *
+     * @param key          The setting name, without the {@code tabby.} prefix.
+     * @param defaultValue The value to use if the setting is not set anywhere.
+     * @return The value of the setting.
+     */
+    public String get(String key, String defaultValue) {
+        return System.getProperty(PROPERTY_PREFIX + key, properties.getProperty(key, defaultValue)).trim();
+    }
+
+    /**
+     * Returns a numeric setting, preferring the system property over the config file.
+     *
+     * @param key          The setting name, without the {@code tabby.} prefix.
+     * @param defaultValue The value to use if the setting is not set anywhere.
+     * @return The value of the setting.
+     * @throws IllegalArgumentException If the setting is not a number.
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = get(key, Long.toString(defaultValue));
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    /**
+     * Returns a setting that must be a positive whole number small enough to count list positions.
+     *
+     * @param key          The setting name, without the {@code tabby.} prefix.
+     * @param defaultValue The value to use if the setting is not set anywhere.
+     * @return The value of the setting.
+     * @throws IllegalArgumentException If the setting is not a number from 1 to {@code Integer.MAX_VALUE}.
+     */
+    private int getPositiveInt(String key, int defaultValue) {
+        long value = getLong(key, defaultValue);
+        if (value < 1 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(key + " must be from 1 to " + Integer.MAX_VALUE + ": " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Returns the way to keep tasks in memory selected by the {@code layout} setting.
+     *
+     * @return The selected TaskLayout.
+     * @throws IllegalArgumentException If the setting names an unknown layout.
+     */
+    public TaskLayout getLayout() {
+        String layout = get("layout", "objects");
+        return switch (layout.toLowerCase()) {
+        case "objects" -> TaskLayout.OBJECTS;
+        case "columnar" -> TaskLayout.COLUMNAR;
+        case "offheap" -> TaskLayout.OFF_HEAP;
+        default -> throw new IllegalArgumentException("Unknown task layout: " + layout);
+        };
+    }
+
+    /**
+     * Returns whether every change must be forced to disk before it is confirmed, as set by {@code durable}.
+     *
+     * @return true if saves must be durable.
+     */
+    public boolean isDurable() {
+        return Boolean.parseBoolean(get("durable", "false"));
+    }
+
+    /**
+     * Creates the Storage backend selected by the {@code storage} setting.
+     *
+     * @param ui The Ui instance used by the backend to display errors.
+     * @return The selected Storage.
+     * @throws IllegalArgumentException If the setting names an unknown backend, a size setting of the backend
+     *                                  is not a positive number, or {@code durable} is set for a backend that
+     *                                  cannot force its writes to disk.
+     */
+    public Storage createStorage(Ui ui) {
+        String backend = get("storage", "text");
+        Storage storage = switch (backend.toLowerCase()) {
+        case "text" -> new TextStorage(directory, TEXT_FILENAME, ui);
+        case "journal" -> new JournalStorage(directory, TEXT_FILENAME, ui,
+                getLong("journal.compactBytes", JournalStorage.DEFAULT_COMPACT_THRESHOLD));
+        case "segmented" -> new SegmentedStorage(directory, TEXT_FILENAME, ui,
+                getPositiveInt("segment.size", SegmentedStorage.DEFAULT_SEGMENT_SIZE));
+        case "paged" -> new PagedStorage(directory, TEXT_FILENAME, ui,
+                getPositiveInt("paged.cacheSize", PagedStorage.DEFAULT_CACHE_SIZE));
+        case "binary" -> new BinaryStorage(directory, BINARY_FILENAME, ui);
+        case "memory" -> new MemoryStorage();
+        default -> throw new IllegalArgumentException("Unknown storage backend: " + backend);
+        };
+        if (isDurable() && !(storage instanceof DurableStorage)) {
+            throw new IllegalArgumentException("The " + backend + " storage cannot force changes to disk, "
+                    + "so durable saves are not supported");
+        }
+        return storage;
+    }
+}
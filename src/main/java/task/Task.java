@@ -1,12 +1,42 @@
 package task;
 
+import java.nio.charset.Charset;
+
 /**
  * Represents a generic task with a description and completion status.
  * This class serves as the base class for specific types of tasks.
+ * <p>
+ * The string form of a task is built once and kept until the task is marked as done or not done,
+ * and so is the line that stores it in the task file, in the form written to the file.
  */
 public abstract class Task {
+    static final int STATUS_PREFIX_LENGTH = 6;
+    static final String ID_SEPARATOR = "\t#";
+    static final Charset FILE_CHARSET = Charset.defaultCharset();
+
     protected String description;
     protected boolean isDone;
+    protected long id;
+    private volatile Rendering rendering;
+
+    /**
+     * The string form of a task, and possibly its task file line, as built for one done status and ID.
+     * The status and ID are checked on use, so a rendering built by another thread while the task
+     * changed is never used for the wrong state.
+     */
+    private static final class Rendering {
+        private final boolean isDone;
+        private final String text;
+        private final long id;
+        private final byte[] fileLine;
+
+        private Rendering(boolean isDone, String text, long id, byte[] fileLine) {
+            this.isDone = isDone;
+            this.text = text;
+            this.id = id;
+            this.fileLine = fileLine;
+        }
+    }
 
     /**
      * Constructs a new Task with the specified description and completion status.
@@ -19,6 +49,24 @@ public abstract class Task {
         this.isDone = isDone;
     }
 
+    /**
+     * Returns the ID of the task, which stays the same for as long as the task exists.
+     *
+     * @return The ID of the task, or 0 if it has not been added to a task list yet.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the task. IDs are assigned by the task list the task is added to.
+     *
+     * @param id The ID of the task.
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+
     /**
      * Returns the status icon for the task.
      * An "X" indicates the task is completed, and a blank space indicates it is not.
@@ -34,6 +82,7 @@ public abstract class Task {
      */
     public void markAsDone() {
         this.isDone = true;
+        this.rendering = null;
     }
 
     /**
@@ -41,17 +90,75 @@ public abstract class Task {
      */
     public void markAsNotDone() {
         this.isDone = false;
+        this.rendering = null;
     }
 
     /**
      * Returns the string representation of the task, including its status icon
-     * and description.
+     * and description. The string is built on the first call and reused until the status changes.
      *
      * @return A string describing the task.
      */
     @Override
-    public String toString() {
-        return String.format("[%s] %s", getStatusIcon(), this.description);
+    public final String toString() {
+        return getRendering().text;
     }
-}
 
+    /**
+     * Builds the string representation of the task for the given status.
+     * Subclasses add their type before it and their dates after it.
+     *
+     * @param isDone The completion status to show.
+     * @return A string describing the task.
+     */
+    String render(boolean isDone) {
+        return "[" + (isDone ? "X" : " ") + "] " + description;
+    }
+
+    /**
+     * Returns the line that stores the task in the task file: its string form followed by a tab and its ID.
+     *
+     * @return The task file line, without a line separator.
+     */
+    String toFileLine() {
+        return id == 0 ? toString() : toString() + ID_SEPARATOR + id;
+    }
+
+    /**
+     * Returns the task file line in the bytes written to the task file. The bytes are built on the first
+     * call and reused until the status or ID changes, so they must not be modified.
+     *
+     * @return The task file line in {@link #FILE_CHARSET}, without a line separator.
+     */
+    byte[] toFileBytes() {
+        Rendering current = getRendering();
+        if (current.fileLine != null && current.id == id) {
+            return current.fileLine;
+        }
+        long currentId = id;
+        String line = currentId == 0 ? current.text : current.text + ID_SEPARATOR + currentId;
+        byte[] fileLine = line.getBytes(FILE_CHARSET);
+        rendering = new Rendering(current.isDone, current.text, currentId, fileLine);
+        return fileLine;
+    }
+
+    private Rendering getRendering() {
+        boolean currentIsDone = isDone;
+        Rendering current = rendering;
+        if (current == null || current.isDone != currentIsDone) {
+            current = new Rendering(currentIsDone, render(currentIsDone), 0, null);
+            rendering = current;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the text of the task that can be searched: its string form without the type and status,
+     * which every task string starts with, such as "[D][X]".
+     *
+     * @return The description of the task followed by its dates, if any.
+     */
+    String getSearchText() {
+        return toString().substring(STATUS_PREFIX_LENGTH);
+    }
+}
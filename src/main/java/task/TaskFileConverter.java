@@ -0,0 +1,70 @@
+package task;
+
+import java.io.File;
+import java.io.IOException;
+
+import tabby.Ui;
+
+/**
+ * A one-shot command line tool that converts a task file between the text and binary formats.
+ * <p>
+ * Usage: {@code java -cp tabby.jar task.TaskFileConverter to-binary|to-text <source> <target>}
+ */
+public class TaskFileConverter {
+
+    /**
+     * Converts the source file to the target file in the requested direction.
+     *
+     * @param args The direction ({@code to-binary} or {@code to-text}), the source file and the target file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("to-binary") || args[0].equals("to-text"))) {
+            System.err.println("Usage: TaskFileConverter to-binary|to-text <source> <target>");
+            System.exit(1);
+        }
+
+        File source = new File(args[1]);
+        File target = new File(args[2]);
+        try {
+            LoadResult result = args[0].equals("to-binary") ? toBinary(source, target) : toText(source, target);
+            System.out.printf("Converted %d tasks from %s to %s (%d rejected, %d unreadable left out)%n",
+                    result.getTasks().size(), source, target, result.getRejectedCount(),
+                    result.getUnreadableLines().size());
+        } catch (IOException e) {
+            System.err.println("Conversion failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts a text task file to the binary format.
+     *
+     * @param source The text task file.
+     * @param target The binary file to write.
+     * @return The result of reading the text file.
+     * @throws IOException If the source is missing or the target cannot be written.
+     */
+    public static LoadResult toBinary(File source, File target) throws IOException {
+        if (!source.isFile()) {
+            throw new IOException("File not found - " + source.getAbsolutePath());
+        }
+        File folder = source.getAbsoluteFile().getParentFile();
+        LoadResult result = new TextStorage(folder.getPath(), source.getName(), new Ui()).loadTasks();
+        BinaryTaskFormat.write(target, result.getTasks());
+        return result;
+    }
+
+    /**
+     * Converts a binary task file to the text format.
+     *
+     * @param source The binary task file.
+     * @param target The text file to write.
+     * @return The result of reading the binary file.
+     * @throws IOException If the source cannot be read or the target cannot be written.
+     */
+    public static LoadResult toText(File source, File target) throws IOException {
+        LoadResult result = BinaryTaskFormat.read(source);
+        TextStorage.writeTasks(target, result.getTasks());
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A hash index from task IDs to tasks, so that a task can be found by its ID in constant time.
+ */
+class TaskIdIndex implements TaskIndex {
+    private final Map<Long, Task> tasksById = new HashMap<>();
+
+    @Override
+    public void add(Task task) {
+        tasksById.put(task.id, task);
+    }
+
+    @Override
+    public void remove(Task task) {
+        tasksById.remove(task.id, task);
+    }
+
+    @Override
+    public void clear() {
+        tasksById.clear();
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The task, or {@code null} if no task has the ID.
+     */
+    Task get(long id) {
+        return tasksById.get(id);
+    }
+}
@@ -0,0 +1,39 @@
+package task;
+
+/**
+ * A search structure over the task list that is kept up to date as tasks are added and removed.
+ * A task whose status changes is replaced by itself.
+ */
+interface TaskIndex {
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task The task that was added to the list.
+     */
+    void add(Task task);
+
+    /**
+     * Removes a task from the index. The task may have changed since it was added.
+     *
+     * @param task The task that was removed from the list.
+     */
+    void remove(Task task);
+
+    /**
+     * Replaces a task in the index with the task that took its place in the list.
+     * The two may be the same task, changed since it was added.
+     *
+     * @param previous The task that was replaced.
+     * @param task     The task that replaced it.
+     */
+    default void replace(Task previous, Task task) {
+        remove(previous);
+        add(task);
+    }
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear();
+}
@@ -0,0 +1,22 @@
+package task;
+
+/**
+ * The ways a TaskManager can keep its tasks in memory.
+ */
+public enum TaskLayout {
+    /** A task object per task, with search indexes over them. */
+    OBJECTS,
+    /** Columns of primitives with the descriptions in one byte buffer on the Java heap. */
+    COLUMNAR,
+    /** Columns of primitives with the descriptions in one byte buffer outside the Java heap. */
+    OFF_HEAP;
+
+    /**
+     * Returns whether tasks in this layout are kept in a {@link ColumnarTaskList}.
+     *
+     * @return true for the columnar layouts.
+     */
+    public boolean isColumnar() {
+        return this != OBJECTS;
+    }
+}
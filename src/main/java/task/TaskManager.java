@@ -1,6 +1,14 @@
 package task;
 
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import tabby.Ui;
 
@@ -9,9 +17,33 @@ import tabby.Ui;
  * Also integrates with the Storage class for saving and loading tasks.
  */
 public class TaskManager {
-    private final ArrayList<Task> taskList;
+    private static final long NO_ID = 0;
+    private static final long BATCHED = -1;
+
+    private final ReminderIndex reminderIndex = new ReminderIndex();
+    private final TaskOrder taskOrder = new TaskOrder();
+    private final TokenIndex tokenIndex = new TokenIndex(taskOrder);
+    private final TrigramIndex trigramIndex = new TrigramIndex(taskOrder);
+    private final TaskIdIndex taskIdIndex = new TaskIdIndex();
+    private List<Task> storedTasks;
+    private List<Task> taskList;
+    private boolean isIndexed;
+    private long nextId;
+    private long savedNextId;
+    private boolean hasUnsavedIds;
     private final Storage storage;
+    // The storage, if saving is durable
+    private DurableStorage durableStorage;
     private final Ui ui;
+    private final TaskLayout layout;
+    private LoadResult loadResult;
+    private WriteBehindSaver writeBehindSaver;
+    private boolean isGroupCommit;
+    private boolean isClosed;
+    private boolean isInBatch;
+    private boolean hasBatchChanges;
+    // Undoes the changes made by the batch being run, latest first, or null outside a batch
+    private Deque<Runnable> undoLog;
 
     /**
      * Constructs a TaskManager instance with the specified storage and user interface.
@@ -20,29 +52,313 @@ public class TaskManager {
      * @param ui      The Ui instance for displaying messages and errors.
      */
     public TaskManager(Storage storage, Ui ui) {
+        this(storage, ui, TaskLayout.OBJECTS);
+    }
+
+    /**
+     * Constructs a TaskManager instance that may keep its tasks in columns instead of task objects.
+     * A columnar list takes far less memory for large lists, but has no search indexes, so queries check
+     * every task. A paged storage already keeps its tasks on disk and ignores this choice.
+     *
+     * @param storage The Storage instance for saving and loading tasks.
+     * @param ui      The Ui instance for displaying messages and errors.
+     * @param layout  How to keep the tasks in memory.
+     */
+    public TaskManager(Storage storage, Ui ui, TaskLayout layout) {
         this.storage = storage;
-        this.taskList = new ArrayList<>();
         this.ui = ui;
+        this.layout = layout;
         loadTasks();
     }
 
     /**
-     * Loads tasks from storage into the task list.
+     * Loads tasks from storage in one step, replacing the current task list with the loaded one,
+     * and rebuilds the indexes over it. The loaded tasks are not saved back to storage.
+     * <p>
+     * Tasks stored without an ID are given one. Those IDs are saved by writing the whole list on the
+     * next change, before any task added later is stored with an ID above them. New IDs also start no lower
+     * than the next ID recorded in storage, so the IDs of deleted tasks are not given out again.
+     *
+     * @return The LoadResult describing the load.
+     */
+    public synchronized LoadResult loadTasks() {
+        loadResult = storage.loadTasks();
+        storedTasks = loadResult.getTasks();
+        savedNextId = storage.loadNextId();
+        // Indexes would keep a task object per task in memory, so paged and columnar lists are scanned when queried
+        isIndexed = !(storedTasks instanceof PagedTaskList) && !layout.isColumnar();
+        if (storedTasks instanceof PagedTaskList pagedList) {
+            // The paged list gives IDs to the tasks in it without reading them
+            nextId = Math.max(pagedList.getMaxId() + 1, savedNextId);
+            hasUnsavedIds = pagedList.hasUnwrittenIds();
+            taskList = storedTasks;
+        } else if (layout.isColumnar()) {
+            hasUnsavedIds = assignIds(storedTasks);
+            storedTasks = ColumnarTaskList.of(storedTasks, layout == TaskLayout.OFF_HEAP);
+            loadResult = loadResult.withTasks(storedTasks);
+            taskList = storedTasks;
+        } else {
+            // Positional changes anywhere in the list take logarithmic time in a tree
+            storedTasks = new TaskTreeList(storedTasks);
+            hasUnsavedIds = assignIds(storedTasks);
+            taskList = new ObservedTaskList(storedTasks,
+                    List.of(taskOrder, taskIdIndex, reminderIndex, tokenIndex, trigramIndex));
+        }
+        return loadResult;
+    }
+
+    /**
+     * Gives an ID to every task that has none or shares its ID with an earlier task,
+     * counting up from the highest ID in the list or the next ID recorded in storage, whichever is higher.
      *
-     * @return An ArrayList of loaded tasks.
+     * @param tasks The loaded tasks.
+     * @return true if any task was given a new ID.
      */
-    public ArrayList<Task> loadTasks() {
-        return storage.loadTasks(this);
+    private boolean assignIds(List<Task> tasks) {
+        long maxId = Math.max(0, savedNextId - 1);
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.id);
+        }
+
+        Set<Long> usedIds = new HashSet<>();
+        boolean isChanged = false;
+        for (Task task : tasks) {
+            if (task.id <= 0 || !usedIds.add(task.id)) {
+                task.setId(++maxId);
+                usedIds.add(task.id);
+                isChanged = true;
+            }
+        }
+        nextId = maxId + 1;
+        return isChanged;
+    }
+
+    /**
+     * Returns the result of the most recent load from storage.
+     *
+     * @return The LoadResult of the last load.
+     */
+    public LoadResult getLoadResult() {
+        return loadResult;
+    }
+
+    /**
+     * Switches to asynchronous saving. Mutations only mark the task list as dirty and a background
+     * writer saves the latest snapshot once per debounce interval. Unsaved changes are written by
+     * {@link #flush()} and {@link #close()}.
+     *
+     * @param debounceMillis How long the writer waits after the first unsaved change before saving.
+     */
+    public void enableWriteBehind(long debounceMillis) {
+        writeBehindSaver = new WriteBehindSaver(() -> saveAll(false), debounceMillis);
+    }
+
+    /**
+     * Switches to durable saving with group commit. Every mutation waits until the task list, including
+     * its change, has been forced to disk. Mutations made within the commit window, for example from
+     * several threads, share a single save. If that save fails, each of those mutations throws the
+     * {@link UncheckedIOException} of the save. Their changes stay in the list and are saved with
+     * the next change.
+     *
+     * @param windowMillis How long a save waits after the first change for more changes to join it.
+     * @throws IllegalStateException If the storage cannot force its writes to disk.
+     */
+    public void enableGroupCommit(long windowMillis) {
+        if (!(storage instanceof DurableStorage durable)) {
+            throw new IllegalStateException(storage.getClass().getSimpleName() + " cannot force its writes to disk");
+        }
+        durableStorage = durable;
+        writeBehindSaver = new WriteBehindSaver(() -> saveAll(true), windowMillis);
+        isGroupCommit = true;
     }
 
     /**
-     * Adds a new task to the task list and saves it to storage.
+     * Saves any changes that the background writer has not written yet, blocking until they are stored.
+     * Does nothing when saving is synchronous.
+     *
+     * @throws UncheckedIOException If saving is durable and the changes could not be forced to disk.
+     */
+    public void flush() {
+        if (writeBehindSaver != null) {
+            writeBehindSaver.flush();
+        }
+    }
+
+    /**
+     * Saves any pending changes and lets the storage backend tidy up before the application exits.
+     * Only the first call has any effect.
+     *
+     * @throws UncheckedIOException If saving is durable and the changes could not be forced to disk.
+     */
+    public void close() {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                storage.close(storedTasks);
+            }
+        }
+    }
+
+    /**
+     * Saves the whole task list from the background writer. Most lists are copied so that commands can
+     * go on while the copy is written, but a paged list is saved in place, since copying it would read
+     * every task from disk.
+     *
+     * @param isDurable Whether to force the saved tasks to disk.
+     */
+    private void saveAll(boolean isDurable) {
+        if (storedTasks instanceof PagedTaskList) {
+            synchronized (this) {
+                save(storedTasks, isDurable);
+            }
+        } else {
+            save(snapshot(), isDurable);
+        }
+    }
+
+    private void save(List<Task> tasks, boolean isDurable) {
+        if (isDurable) {
+            durableStorage.saveTasksDurably(tasks);
+        } else {
+            storage.saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Returns a copy of the task list that is safe to save from another thread.
+     *
+     * @return A copy of the current task list.
+     */
+    private synchronized ArrayList<Task> snapshot() {
+        return new ArrayList<>(taskList);
+    }
+
+    /**
+     * Runs several commands as one batch. Changes made by the commands are not saved one by one; the whole
+     * list is saved once after the last command, or handed to the background writer once if saving is
+     * asynchronous. The lock on this TaskManager is held throughout, so the background writer cannot save
+     * the list halfway through the batch.
+     * <p>
+     * The batch is all or nothing: if it throws, every change it made is undone and nothing is saved.
+     * A batch run inside another batch only undoes its own changes, and the outer batch goes on.
+     *
+     * @param batch The commands to run, which may add, delete and mark tasks through this TaskManager.
+     * @param <T>   The type of result of the commands.
+     * @return The result of the commands.
+     */
+    public <T> T runBatch(Supplier<T> batch) {
+        T result;
+        long ticket = 0;
+        synchronized (this) {
+            if (isInBatch) {
+                return runUndoable(batch);
+            }
+            isInBatch = true;
+            undoLog = new ArrayDeque<>();
+            try {
+                result = runUndoable(batch);
+            } catch (RuntimeException | Error e) {
+                // Every change was undone, so the list is the same as when the batch started
+                hasBatchChanges = false;
+                throw e;
+            } finally {
+                isInBatch = false;
+                undoLog = null;
+                if (hasBatchChanges) {
+                    hasBatchChanges = false;
+                    ticket = listChanged();
+                }
+            }
+        }
+        awaitSaved(ticket);
+        return result;
+    }
+
+    /**
+     * Runs a batch, undoing the changes it made if it throws.
+     */
+    private <T> T runUndoable(Supplier<T> batch) {
+        int undoCount = undoLog.size();
+        try {
+            return batch.get();
+        } catch (RuntimeException | Error e) {
+            while (undoLog.size() > undoCount) {
+                undoLog.pop().run();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Records how to undo a change, if the change is made by a batch.
+     *
+     * @param undo Undoes the change, given that every later change has already been undone.
+     */
+    private void recordUndo(Runnable undo) {
+        if (undoLog != null) {
+            undoLog.push(undo);
+        }
+    }
+
+    /**
+     * Records how to put back the tasks at the given positions, if they are removed by a batch.
+     *
+     * @param positions The zero-based positions of the tasks to be removed.
+     */
+    private void recordRemoval(BitSet positions) {
+        if (undoLog == null) {
+            return;
+        }
+        BitSet removedPositions = (BitSet) positions.clone();
+        List<Task> removedTasks = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            removedTasks.add(taskList.get(i));
+        }
+        undoLog.push(() -> {
+            int k = 0;
+            for (int i = removedPositions.nextSetBit(0); i >= 0; i = removedPositions.nextSetBit(i + 1)) {
+                taskList.add(i, removedTasks.get(k++));
+            }
+        });
+    }
+
+    /**
+     * Sets the done status of the task at the given position, for undoing a change to it.
+     */
+    private void restoreStatus(int taskNumber, boolean isDone) {
+        Task task = taskList.get(taskNumber);
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+        taskList.set(taskNumber, task);
+    }
+
+    /**
+     * Adds a new task to the task list and saves it to storage. The task is given the next ID.
      *
      * @param task The task to be added.
      */
     public void addTask(Task task) {
-        taskList.add(task);
-        storage.saveTasks(taskList);
+        long ticket;
+        synchronized (this) {
+            task.setId(nextId++);
+            taskList.add(task);
+            recordUndo(() -> taskList.remove(taskList.size() - 1));
+            ticket = markDirty();
+            if (ticket == 0 && !saveUnsavedIds()) {
+                storage.taskAdded(storedTasks, task);
+            }
+        }
+        awaitSaved(ticket);
     }
 
     /**
@@ -52,17 +368,163 @@ public class TaskManager {
      * @return A message confirming the task deletion or an error message.
      */
     public String deleteTask(int taskNumber) {
-        try {
-            if (taskNumber < 0 || taskNumber >= taskList.size()) {
-                throw new IndexOutOfBoundsException("Use 'list' command to view the available tasks");
+        return delete(taskNumber, NO_ID);
+    }
+
+    /**
+     * Deletes the task with the given ID from the task list and saves the updated list to storage.
+     *
+     * @param id The ID of the task to be deleted.
+     * @return A message confirming the task deletion or an error message.
+     */
+    public String deleteTaskById(long id) {
+        return delete(-1, id);
+    }
+
+    private String delete(int taskNumber, long id) {
+        String response;
+        long ticket;
+        synchronized (this) {
+            if (id != NO_ID) {
+                taskNumber = positionOf(id);
+                if (taskNumber < 0) {
+                    return noTaskWithId(id);
+                }
+            }
+            try {
+                if (taskNumber < 0 || taskNumber >= taskList.size()) {
+                    throw new IndexOutOfBoundsException("Use 'list' command to view the available tasks");
+                }
+
+                Task task = taskList.get(taskNumber);
+                recordNextId();
+                taskList.remove(taskNumber);
+                int position = taskNumber;
+                recordUndo(() -> taskList.add(position, task));
+                ticket = markDirty();
+                if (ticket == 0 && !saveUnsavedIds()) {
+                    storage.taskDeleted(storedTasks, taskNumber);
+                }
+                response = taskResponse("deleted", task);
+            } catch (IndexOutOfBoundsException e) {
+                return "= >_< = Error \n Task does not exist. " + e.getMessage();
+            }
+        }
+        awaitSaved(ticket);
+        return response;
+    }
+
+    /**
+     * Deletes the selected tasks in one pass over the list and saves the list once, instead of deleting
+     * and saving the tasks one by one.
+     *
+     * @param selection The tasks to delete, by position or by whether they are done.
+     * @return A message saying how many tasks were deleted, or an error message.
+     */
+    public String deleteTasks(TaskSelection selection) {
+        int deletedCount;
+        int noOfTasks;
+        long ticket;
+        synchronized (this) {
+            if (selection.getLastPosition() >= taskList.size()) {
+                return "= >_< = Error \n Task does not exist. Use 'list' command to view the available tasks";
+            }
+            BitSet positions = positionsOf(selection);
+            if (positions.isEmpty()) {
+                return "= >_< = Error \n No matching tasks found!";
             }
+            recordNextId();
+            recordRemoval(positions);
+            deletedCount = removePositions(positions);
+            noOfTasks = taskList.size();
+            ticket = listChanged();
+        }
+        awaitSaved(ticket);
+        return String.format("= ^_^ = Alrights. I've deleted %s.\nNow you have %s in the list",
+                countOf(deletedCount), countOf(noOfTasks));
+    }
+
+    /**
+     * Records the next ID in storage before tasks are deleted, unless it is recorded already, so that the
+     * ID of a deleted task is not given to a new task after a restart.
+     */
+    private void recordNextId() {
+        if (nextId > savedNextId) {
+            storage.saveNextId(nextId);
+            savedNextId = nextId;
+        }
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass over the list.
+     *
+     * @param positions The zero-based positions of the tasks to remove.
+     * @return The number of tasks removed.
+     */
+    private int removePositions(BitSet positions) {
+        if (storedTasks instanceof PagedTaskList pagedList) {
+            return pagedList.removePositions(positions);
+        }
+        if (storedTasks instanceof ColumnarTaskList columnarList) {
+            return columnarList.removePositions(positions);
+        }
+        return ((ObservedTaskList) taskList).removePositions(positions);
+    }
+
+    /**
+     * Saves the whole list if some tasks were given IDs that are not in storage yet.
+     *
+     * @return true if the list was saved, so the change being made needs no saving of its own.
+     */
+    private boolean saveUnsavedIds() {
+        if (!hasUnsavedIds) {
+            return false;
+        }
+        save(storedTasks, false);
+        hasUnsavedIds = false;
+        return true;
+    }
 
-            Task task = taskList.get(taskNumber);
-            taskList.remove(taskNumber);
-            storage.saveTasks(taskList);
-            return taskResponse("deleted", task);
-        } catch (IndexOutOfBoundsException e) {
-            return "= >_< = Error \n Task does not exist. " + e.getMessage();
+    /**
+     * Saves a change to many tasks by saving the whole list once, either now or through the background
+     * writer, or leaves it to be saved with the rest of the batch being run.
+     *
+     * @return The ticket of the change, or 0 if it was saved straight away.
+     */
+    private long listChanged() {
+        long ticket = markDirty();
+        if (ticket == 0) {
+            save(storedTasks, false);
+            hasUnsavedIds = false;
+        }
+        return ticket;
+    }
+
+    /**
+     * Hands a change to the background writer, if saving is asynchronous, or leaves it to be saved with
+     * the rest of the batch being run.
+     *
+     * @return The ticket of the change, {@code BATCHED} if it is saved at the end of the batch, or 0 if the
+     *         caller must save the change itself.
+     */
+    private long markDirty() {
+        if (isInBatch) {
+            hasBatchChanges = true;
+            return BATCHED;
+        }
+        return writeBehindSaver != null ? writeBehindSaver.markDirty() : 0;
+    }
+
+    /**
+     * Waits until the change with the given ticket is on disk, if saving uses group commit.
+     * Must be called without holding the lock on this TaskManager, so that the save can go ahead.
+     *
+     * @param ticket The ticket returned by {@link #markDirty()}.
+     * @throws UncheckedIOException If the change could not be forced to disk.
+     */
+    private void awaitSaved(long ticket) {
+        if (isGroupCommit && ticket > 0) {
+            writeBehindSaver.awaitSaved(ticket);
         }
     }
 
@@ -88,14 +550,14 @@ public class TaskManager {
     /**
      * Retrieves the list of tasks.
      *
-     * @return An ArrayList of tasks.
+     * @return The list of tasks.
      */
-    public ArrayList<Task> getTasks() {
+    public List<Task> getTasks() {
         return taskList;
     }
 
     /**
-     * Displays all tasks in the task list to the user.
+     * Displays all tasks in the task list to the user, each followed by its ID.
      */
     public String displayTaskList() {
         if (taskList.isEmpty()) {
@@ -103,7 +565,8 @@ public class TaskManager {
         } else {
             StringBuilder taskListString = new StringBuilder("= ^_^ = Here are the tasks in your list:\n");
             for (int i = 0; i < taskList.size(); i++) {
-                taskListString.append(i + 1).append(". ").append(taskList.get(i)).append("\n");
+                Task task = taskList.get(i);
+                taskListString.append(i + 1).append(". ").append(task).append(" #").append(task.id).append("\n");
             }
             // Feed the combined string to ui.display
             return taskListString.toString().trim();
@@ -117,14 +580,41 @@ public class TaskManager {
      * @return A message confirming the task has been marked as done or an error message.
      */
     public String markTaskDone(int taskNumber) {
-        if (taskNumber >= 0 && taskNumber < taskList.size()) {
-            Task task = taskList.get(taskNumber);
+        return markDone(taskNumber, NO_ID);
+    }
+
+    /**
+     * Marks the task with the given ID as done and saves the updated list to storage.
+     *
+     * @param id The ID of the task to mark as done.
+     * @return A message confirming the task has been marked as done or an error message.
+     */
+    public String markTaskDoneById(long id) {
+        return markDone(-1, id);
+    }
+
+    private String markDone(int taskNumber, long id) {
+        Task task;
+        long ticket;
+        synchronized (this) {
+            if (id != NO_ID) {
+                taskNumber = positionOf(id);
+                if (taskNumber < 0) {
+                    return noTaskWithId(id);
+                }
+            }
+            if (taskNumber < 0 || taskNumber >= taskList.size()) {
+                return "= >_< =Error \n Invalid task number.";
+            }
+            task = taskList.get(taskNumber);
+            boolean wasDone = task.isDone;
             task.markAsDone();
-            storage.saveTasks(taskList);
-            return String.format("= ^_^ = Solid! I've marked this task as done:\n %s", task);
-        } else {
-            return "= >_< =Error \n Invalid task number.";
+            ticket = statusChanged(taskNumber, task);
+            int position = taskNumber;
+            recordUndo(() -> restoreStatus(position, wasDone));
         }
+        awaitSaved(ticket);
+        return String.format("= ^_^ = Solid! I've marked this task as done:\n %s", task);
     }
 
     /**
@@ -134,70 +624,322 @@ public class TaskManager {
      * @return A message confirming the task has been marked as not done or an error message.
      */
     public String markTaskNotDone(int taskNumber) {
-        if (taskNumber >= 0 && taskNumber < taskList.size()) {
-            Task task = taskList.get(taskNumber);
+        return markNotDone(taskNumber, NO_ID);
+    }
+
+    /**
+     * Marks the task with the given ID as not done and saves the updated list to storage.
+     *
+     * @param id The ID of the task to mark as not done.
+     * @return A message confirming the task has been marked as not done or an error message.
+     */
+    public String markTaskNotDoneById(long id) {
+        return markNotDone(-1, id);
+    }
+
+    private String markNotDone(int taskNumber, long id) {
+        Task task;
+        long ticket;
+        synchronized (this) {
+            if (id != NO_ID) {
+                taskNumber = positionOf(id);
+                if (taskNumber < 0) {
+                    return noTaskWithId(id);
+                }
+            }
+            if (taskNumber < 0 || taskNumber >= taskList.size()) {
+                return "= >_< = Error \n Invalid task number.";
+            }
+            task = taskList.get(taskNumber);
+            boolean wasDone = task.isDone;
             task.markAsNotDone();
-            storage.saveTasks(taskList);
-            return String.format("= ^_^ =\n Okais, I've marked this task as not done yet:\n %s", task);
+            ticket = statusChanged(taskNumber, task);
+            int position = taskNumber;
+            recordUndo(() -> restoreStatus(position, wasDone));
+        }
+        awaitSaved(ticket);
+        return String.format("= ^_^ =\n Okais, I've marked this task as not done yet:\n %s", task);
+    }
+
+    /**
+     * Marks the selected tasks as done in one pass over the list and saves the list once. Tasks that are
+     * already done are not counted, and the list is not saved if none of the tasks changed.
+     *
+     * @param selection The tasks to mark as done, by position or by whether they are done.
+     * @return A message saying how many tasks were marked as done, or an error message.
+     */
+    public String markTasksDone(TaskSelection selection) {
+        return markAll(selection, true);
+    }
+
+    /**
+     * Marks the selected tasks as not done in one pass over the list and saves the list once. Tasks that
+     * are already not done are not counted, and the list is not saved if none of the tasks changed.
+     *
+     * @param selection The tasks to mark as not done, by position or by whether they are done.
+     * @return A message saying how many tasks were marked as not done, or an error message.
+     */
+    public String markTasksNotDone(TaskSelection selection) {
+        return markAll(selection, false);
+    }
+
+    private String markAll(TaskSelection selection, boolean isDone) {
+        int markedCount = 0;
+        long ticket;
+        synchronized (this) {
+            if (selection.getLastPosition() >= taskList.size()) {
+                return "= >_< = Error \n Invalid task number.";
+            }
+            BitSet positions = positionsOf(selection);
+            if (positions.isEmpty()) {
+                return "= >_< = Error \n No matching tasks found!";
+            }
+            for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                // Tasks that already have the status are left alone, so their indexes are not updated
+                if (isDone(i) == isDone) {
+                    continue;
+                }
+                Task task = taskList.get(i);
+                if (isDone) {
+                    task.markAsDone();
+                } else {
+                    task.markAsNotDone();
+                }
+                taskList.set(i, task);
+                int position = i;
+                recordUndo(() -> restoreStatus(position, !isDone));
+                markedCount++;
+            }
+            if (markedCount == 0) {
+                return isDone
+                        ? "= ^_^ = Those tasks are already marked as done."
+                        : "= ^_^ =\n Those tasks are already marked as not done.";
+            }
+            ticket = listChanged();
+        }
+        awaitSaved(ticket);
+        if (isDone) {
+            return String.format("= ^_^ = Solid! I've marked %s as done.", countOf(markedCount));
         } else {
-            return "= >_< = Error \n Invalid task number.";
+            return String.format("= ^_^ =\n Okais, I've marked %s as not done yet.", countOf(markedCount));
         }
     }
 
+    /**
+     * Finds the positions of the selected tasks. Checking the status of every task walks the tree holding
+     * the list in order, rather than looking up each position in it.
+     *
+     * @param selection The tasks to find.
+     * @return The zero-based positions of the selected tasks.
+     */
+    private BitSet positionsOf(TaskSelection selection) {
+        int size = taskList.size();
+        if (!selection.isByStatus() || !isIndexed) {
+            return selection.positions(size, this::isDone);
+        }
+        BitSet doneFlags = new BitSet(size);
+        int position = 0;
+        for (Task task : taskList) {
+            if (task.isDone) {
+                doneFlags.set(position);
+            }
+            position++;
+        }
+        return selection.positions(size, doneFlags::get);
+    }
+
+    /**
+     * Returns whether the task at the given position is done, without reading it from a paged list or
+     * building it from a columnar list.
+     *
+     * @param taskNumber The zero-based position of the task.
+     * @return true if the task is marked as done.
+     */
+    private boolean isDone(int taskNumber) {
+        if (storedTasks instanceof PagedTaskList pagedList) {
+            return pagedList.isDone(taskNumber);
+        }
+        if (storedTasks instanceof ColumnarTaskList columnarList) {
+            return columnarList.isDone(taskNumber);
+        }
+        return taskList.get(taskNumber).isDone;
+    }
+
+    private static String countOf(int noOfTasks) {
+        return noOfTasks == 1 ? "1 task" : noOfTasks + " tasks";
+    }
+
+    /**
+     * Finds the position of the task with the given ID through the ID index and the tree holding the list,
+     * in logarithmic time, or through the IDs kept by a paged or columnar list.
+     *
+     * @param id The ID of the task.
+     * @return The zero-based position of the task, or -1 if no task has the ID.
+     */
+    private int positionOf(long id) {
+        if (storedTasks instanceof PagedTaskList pagedList) {
+            return pagedList.indexOfId(id);
+        }
+        if (storedTasks instanceof ColumnarTaskList columnarList) {
+            return columnarList.indexOfId(id);
+        }
+        Task task = taskIdIndex.get(id);
+        return task == null ? -1 : taskList.indexOf(task);
+    }
+
+    private static String noTaskWithId(long id) {
+        return "= >_< = Error \n There is no task with ID #" + id + ". Use 'list' command to view the task IDs";
+    }
+
+    /**
+     * Saves a change to the done status of a task, either now or through the background writer.
+     *
+     * @param taskNumber The index of the task whose status changed.
+     * @param task       The task whose status changed.
+     * @return The ticket of the change, or 0 if it was saved straight away.
+     */
+    private long statusChanged(int taskNumber, Task task) {
+        // Setting the task back updates the indexes, and keeps the change in a paged list until it is saved
+        taskList.set(taskNumber, task);
+        long ticket = markDirty();
+        if (ticket == 0 && !saveUnsavedIds()) {
+            storage.taskStatusChanged(storedTasks, taskNumber);
+        }
+        return ticket;
+    }
+
     /**
      * Searches the task list for tasks containing the specified keyword and displays the matching tasks.
+     * Uses the trigram index to narrow down the tasks to check, so the results are the same as checking
+     * every task but large lists are searched much faster. A columnar list is searched without decoding
+     * the descriptions of tasks that do not match.
      *
      * @param keyword The keyword to search for within task descriptions.
      * @return A message containing the matching tasks or an error message.
      */
-    public String findTask(String keyword) {
+    public synchronized String findTask(String keyword) {
         if (taskList.isEmpty()) {
             return "= >_< = Error \n There are no tasks in your list!";
         }
+        if (isIndexed) {
+            return formatMatches(trigramIndex.find(keyword, taskList));
+        }
+        if (storedTasks instanceof ColumnarTaskList columnarList) {
+            return formatMatches(columnarList.find(keyword));
+        }
+        return formatMatches(TrigramIndex.scan(taskList, keyword));
+    }
 
-        StringBuilder taskListString = new StringBuilder();
-        int matchCount = 0;
+    /**
+     * Searches the task list for tasks containing all the given words and displays the matching tasks.
+     * Words are compared ignoring case, and {@code or} separates alternatives.
+     * Uses the word index, so the cost depends on the number of matches rather than the list size.
+     *
+     * @param query The words to search for within task descriptions and dates.
+     * @return A message containing the matching tasks or an error message.
+     */
+    public synchronized String searchTasks(String query) {
+        if (taskList.isEmpty()) {
+            return "= >_< = Error \n There are no tasks in your list!";
+        }
+        return formatMatches((isIndexed ? tokenIndex : TokenIndex.of(taskList)).find(query));
+    }
 
-        for (int i = 0; i < taskList.size(); i++) {
-            String task = taskList.get(i).toString();
-            if (task.contains(keyword)) {
-                taskListString.append(++matchCount).append(". ").append(task).append("\n");
-            }
+    /**
+     * Searches the task list for tasks containing words close to the given keywords, tolerating typing
+     * mistakes, and displays the matching tasks closest first.
+     * Uses a BK-tree over the words of the word index, so only words near the keywords are compared.
+     *
+     * @param query The keywords to search for, possibly misspelled.
+     * @return A message containing the matching tasks or an error message.
+     */
+    public synchronized String fuzzyFindTask(String query) {
+        if (taskList.isEmpty()) {
+            return "= >_< = Error \n There are no tasks in your list!";
         }
+        return formatMatches((isIndexed ? tokenIndex : TokenIndex.of(taskList)).findFuzzy(query));
+    }
 
-        if (matchCount == 0) {
+    private static String formatMatches(List<Task> matches) {
+        if (matches.isEmpty()) {
             return "= >_< = Error \n No matching tasks found!";
-        } else {
-            return "= ^_^ = Here are the matching tasks in your list:\n" + taskListString.toString().trim();
         }
+
+        StringBuilder taskListString = new StringBuilder("= ^_^ = Here are the matching tasks in your list:");
+        appendNumbered(taskListString, matches);
+        return taskListString.toString();
     }
 
     /**
-     * Generates a reminder for upcoming deadlines and events in the task list.
+     * Lists the deadlines and events that are not done, soonest first, with overdue ones listed separately.
      *
-     * @return A string containing upcoming deadlines and events or an error message if no tasks are found.
+     * @return A string containing upcoming and overdue deadlines and events or an error message if no tasks are found.
      */
     public String remind() {
+        return remind(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Lists the deadlines and events that are not done and due within a time window, soonest first.
+     * Overdue ones are listed separately, most recently due first. Each list holds at most {@code limit} tasks.
+     * Uses the reminder index, so the cost depends on the number of tasks listed rather than the list size.
+     *
+     * @param limit         The maximum number of upcoming and of overdue tasks to list.
+     * @param windowSeconds How far ahead to look for upcoming tasks, in seconds.
+     * @return A string containing upcoming and overdue deadlines and events or an error message if no tasks are found.
+     */
+    public synchronized String remind(int limit, long windowSeconds) {
         if (taskList.isEmpty()) {
             return "= >_< = Error \n There are no tasks in your list!";
         }
 
-        StringBuilder taskListString = new StringBuilder();
-        int matchCount = 0;
+        ReminderIndex reminders = isIndexed ? reminderIndex : ReminderIndex.of(taskList);
+        long now = TaskTime.now();
+        long until = windowSeconds > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + windowSeconds;
+        List<Task> upcoming = reminders.upcoming(now, until, limit);
+        List<Task> overdue = reminders.overdue(now, limit);
 
-        for (int i = 0; i < taskList.size(); i++) {
-            Task task = taskList.get(i);
-            if (!task.getStatusIcon().equals("X") && !(task instanceof ToDo)) {
-                taskListString.append(++matchCount).append(". ").append(task).append("\n");
-            }
+        StringBuilder reminder = new StringBuilder();
+        if (upcoming.isEmpty()) {
+            reminder.append("= ^_^ = You have no upcoming deadlines/events!");
+        } else {
+            reminder.append("= ^_^ = Here are upcoming deadlines/events in your list:");
+            appendNumbered(reminder, upcoming);
+        }
+        if (!overdue.isEmpty()) {
+            reminder.append("\n= >_< = These deadlines/events are overdue:");
+            appendNumbered(reminder, overdue);
         }
+        return reminder.toString();
+    }
 
-        if (matchCount == 0) {
-            return "= ^_^ = You have no upcoming deadlines/events!";
-        } else {
-            return "= ^_^ = Here are upcoming deadlines/events in your list:\n" + taskListString.toString().trim();
+    private static void appendNumbered(StringBuilder builder, List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            builder.append("\n").append(i + 1).append(". ").append(tasks.get(i));
         }
     }
 
+    /**
+     * Displays statistics about the task list and the last load from storage.
+     *
+     * @return A message listing the number of tasks, the load summary and the size of the search indexes.
+     */
+    public synchronized String displayStats() {
+        String stats = String.format("= ^_^ = Here are some stats:\n Tasks: %d\n Last load: %s",
+                taskList.size(), loadResult.summary());
+        if (isIndexed) {
+            stats += String.format("\n Find index: %s\n Search index: %d words",
+                    trigramIndex.summary(), tokenIndex.getTokenCount());
+        }
+        if (storedTasks instanceof ColumnarTaskList columnarList) {
+            stats += String.format("\n Columns: %.1f MB, descriptions: %.1f MB %s",
+                    columnarList.getColumnBytes() / (1024.0 * 1024.0),
+                    columnarList.getDescriptionBytes() / (1024.0 * 1024.0),
+                    columnarList.isOffHeap() ? "off the heap" : "on the heap");
+        }
+        if (writeBehindSaver != null) {
+            stats += String.format("\n %s: %s", isGroupCommit ? "Commits" : "Saves", writeBehindSaver.summary());
+        }
+        return stats;
+    }
 }
-
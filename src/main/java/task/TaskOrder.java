@@ -0,0 +1,66 @@
+package task;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the order in which tasks were added to the list, so that search results gathered from
+ * an index can be put back in list order without searching the list.
+ */
+class TaskOrder implements TaskIndex {
+    private final Map<Task, Long> positions = new IdentityHashMap<>();
+    private long nextPosition;
+
+    @Override
+    public void add(Task task) {
+        positions.put(task, nextPosition++);
+    }
+
+    @Override
+    public void remove(Task task) {
+        positions.remove(task);
+    }
+
+    /**
+     * Gives the replacing task the place of the task it replaced.
+     */
+    @Override
+    public void replace(Task previous, Task task) {
+        Long position = positions.remove(previous);
+        positions.put(task, position == null ? nextPosition++ : position);
+    }
+
+    @Override
+    public void clear() {
+        positions.clear();
+    }
+
+    /**
+     * Sorts tasks into the order they have in the list.
+     *
+     * @param tasks The tasks to sort, all of which must be in the list.
+     */
+    void sort(List<Task> tasks) {
+        tasks.sort(inListOrder());
+    }
+
+    /**
+     * Returns a comparator that orders tasks as they are in the list.
+     *
+     * @return A comparator of tasks in the list.
+     */
+    Comparator<Task> inListOrder() {
+        return Comparator.comparingLong(positions::get);
+    }
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return The number of tasks.
+     */
+    int size() {
+        return positions.size();
+    }
+}
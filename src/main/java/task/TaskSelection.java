@@ -0,0 +1,99 @@
+package task;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * A set of tasks to change with one command, chosen either by position, such as {@code 3,7,9-20}, or by
+ * whether they are done. A selection is applied to the whole list in one pass.
+ */
+public class TaskSelection {
+    /** Every task in the list. */
+    public static final TaskSelection ALL = new TaskSelection(null, null, true, true);
+    /** The tasks that are done. */
+    public static final TaskSelection DONE = new TaskSelection(null, null, true, false);
+    /** The tasks that are not done. */
+    public static final TaskSelection NOT_DONE = new TaskSelection(null, null, false, true);
+
+    // Zero-based ranges of positions, each from its start up to but not including its end
+    private final int[] starts;
+    private final int[] ends;
+    private final boolean isDoneIncluded;
+    private final boolean isNotDoneIncluded;
+
+    private TaskSelection(int[] starts, int[] ends, boolean isDoneIncluded, boolean isNotDoneIncluded) {
+        this.starts = starts;
+        this.ends = ends;
+        this.isDoneIncluded = isDoneIncluded;
+        this.isNotDoneIncluded = isNotDoneIncluded;
+    }
+
+    /**
+     * Creates a selection of the tasks in the given ranges of positions. Ranges may overlap and be given
+     * in any order.
+     *
+     * @param starts The zero-based first position of each range.
+     * @param ends   The position after the last position of each range.
+     * @return The selection of the tasks in any of the ranges.
+     * @throws IllegalArgumentException If the arrays differ in length or a range is empty or negative.
+     */
+    public static TaskSelection ofRanges(int[] starts, int[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Each range needs a start and an end");
+        }
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < 0 || ends[i] <= starts[i]) {
+                throw new IllegalArgumentException("Invalid range: " + starts[i] + " to " + ends[i]);
+            }
+        }
+        return new TaskSelection(starts.clone(), ends.clone(), true, true);
+    }
+
+    /**
+     * Returns whether the selection depends on whether tasks are done rather than on their positions.
+     *
+     * @return true if the selection is by status.
+     */
+    boolean isByStatus() {
+        return starts == null;
+    }
+
+    /**
+     * Returns the last position the selection names, which must be in the list for it to apply.
+     *
+     * @return The highest position in the ranges, or -1 for a selection by status.
+     */
+    int getLastPosition() {
+        int lastPosition = -1;
+        if (ends != null) {
+            for (int end : ends) {
+                lastPosition = Math.max(lastPosition, end - 1);
+            }
+        }
+        return lastPosition;
+    }
+
+    /**
+     * Finds the positions of the selected tasks. Ranges are filled in without looking at the tasks, while
+     * a selection by status checks the status of every task.
+     *
+     * @param size   The number of tasks in the list.
+     * @param isDone Tells whether the task at a position is done. Only used for a selection by status.
+     * @return The selected positions below {@code size}.
+     */
+    BitSet positions(int size, IntPredicate isDone) {
+        BitSet positions = new BitSet(size);
+        if (starts != null) {
+            for (int i = 0; i < starts.length; i++) {
+                positions.set(Math.min(starts[i], size), Math.min(ends[i], size));
+            }
+            return positions;
+        }
+        for (int i = 0; i < size; i++) {
+            if (isDone.test(i) ? isDoneIncluded : isNotDoneIncluded) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,155 @@
+package task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A checksummed copy of the parsed task file, kept next to it so that a warm start can skip parsing.
+ * <p>
+ * The snapshot starts with a header recording the size, modification time and CRC32 of the task file
+ * it was taken from, followed by the tasks in {@link BinaryTaskFormat} and a CRC32 of those bytes.
+ * A snapshot is only used while all three still match the task file and its own checksum is intact.
+ */
+class TaskSnapshot {
+    static final int MAGIC = 0x54534E50; // "TSNP"
+    static final short VERSION = 1;
+
+    private TaskSnapshot() {
+    }
+
+    /**
+     * Reads the snapshot if it still describes the source file.
+     *
+     * @param snapshotFile The snapshot file.
+     * @param sourceFile   The task file the snapshot was taken from.
+     * @return The tasks in the snapshot, or {@code null} if the snapshot is missing, stale or damaged.
+     */
+    static LoadResult read(File snapshotFile, File sourceFile) {
+        if (!snapshotFile.exists()) {
+            return null;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return null;
+            }
+            if (in.readLong() != sourceFile.length() || in.readLong() != sourceFile.lastModified()) {
+                return null;
+            }
+            long sourceChecksum = in.readLong();
+            int rejectedCount = in.readInt();
+            long payloadChecksum = in.readLong();
+            int payloadLength = in.readInt();
+            int payloadStart = bytes.length - in.available();
+            if (payloadLength != in.available()) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes, payloadStart, payloadLength);
+            if (crc.getValue() != payloadChecksum || checksum(sourceFile) != sourceChecksum) {
+                return null;
+            }
+
+            LoadResult payload = BinaryTaskFormat.read(new ByteArrayInputStream(bytes, payloadStart, payloadLength));
+            if (payload.getRejectedCount() != 0) {
+                return null;
+            }
+            return new LoadResult(payload.getTasks(), rejectedCount, System.nanoTime() - startTime);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the tasks parsed from the source file, replacing any older snapshot.
+     * The source file must not have changed since the tasks were read from it.
+     *
+     * @param snapshotFile  The snapshot file.
+     * @param sourceFile    The task file the tasks were read from.
+     * @param taskList      The tasks parsed from the source file.
+     * @param rejectedCount The number of lines in the source file that could not be parsed.
+     * @throws IOException If the source file cannot be read or the snapshot cannot be written.
+     */
+    static void write(File snapshotFile, File sourceFile, List<Task> taskList, int rejectedCount)
+            throws IOException {
+        long sourceSize = sourceFile.length();
+        long sourceModified = sourceFile.lastModified();
+        long sourceChecksum = checksum(sourceFile);
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        BinaryTaskFormat.write(payload, taskList);
+        CRC32 crc = new CRC32();
+        crc.update(payload.toByteArray());
+
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tempFile))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceModified);
+            out.writeLong(sourceChecksum);
+            out.writeInt(rejectedCount);
+            out.writeLong(crc.getValue());
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+        }
+        Files.move(tempFile.toPath(), snapshotFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns whether the snapshot was taken from the source file as it is now,
+     * judging by the size and modification time recorded in its header.
+     *
+     * @param snapshotFile The snapshot file.
+     * @param sourceFile   The task file the snapshot was taken from.
+     * @return true if the snapshot header matches the source file.
+     */
+    static boolean isCurrent(File snapshotFile, File sourceFile) {
+        if (!snapshotFile.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(snapshotFile.toPath()))) {
+            return in.readInt() == MAGIC && in.readShort() == VERSION
+                    && in.readLong() == sourceFile.length() && in.readLong() == sourceFile.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Computes the CRC32 of a file in one sequential pass.
+     *
+     * @param file The file to check.
+     * @return The CRC32 of the file contents.
+     * @throws IOException If the file cannot be read.
+     */
+    static long checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,128 @@
+package task;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts task times between their display form ("MMM dd yyyy, h:mm a") and epoch seconds.
+ * Times are local wall-clock times, so epoch seconds are counted as if the local time were UTC;
+ * this keeps stored values independent of the machine's time zone.
+ */
+public final class TaskTime {
+    public static final DateTimeFormatter DISPLAY_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a");
+
+    private static final DateTimeFormatter DISPLAY_PARSER = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendPattern("MMM dd yyyy, h:mm a")
+            .toFormatter();
+    private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private TaskTime() {
+    }
+
+    /**
+     * Converts a displayed time to epoch seconds.
+     *
+     * @param displayTime A time in display form, e.g. "Dec 02 2025, 6:00 pm".
+     * @return The time in epoch seconds.
+     * @throws DateTimeParseException If the time is not in display form.
+     */
+    public static long toEpochSecond(String displayTime) throws DateTimeParseException {
+        long epochSecond = parseEnglish(displayTime);
+        if (epochSecond != NOT_PARSED) {
+            return epochSecond;
+        }
+        return toEpochSecond(LocalDateTime.parse(displayTime, DISPLAY_PARSER));
+    }
+
+    /**
+     * Parses a displayed time with English month names without going through the formatter,
+     * which is much faster when a large task file is loaded.
+     *
+     * @param displayTime A time in display form, e.g. "Dec 02 2025, 6:00 pm".
+     * @return The time in epoch seconds, or {@code NOT_PARSED} if the time is not in that exact form.
+     */
+    private static long parseEnglish(String displayTime) {
+        // MMM dd yyyy, h:mm a
+        int length = displayTime.length();
+        if (length != 19 && length != 20) {
+            return NOT_PARSED;
+        }
+        int hourLength = length - 18;
+        if (displayTime.charAt(3) != ' ' || displayTime.charAt(6) != ' ' || displayTime.charAt(11) != ','
+                || displayTime.charAt(12) != ' ' || displayTime.charAt(13 + hourLength) != ':'
+                || displayTime.charAt(16 + hourLength) != ' ') {
+            return NOT_PARSED;
+        }
+
+        int monthIndex = MONTHS.indexOf(displayTime.substring(0, 3).toLowerCase());
+        if (monthIndex < 0 || monthIndex % 3 != 0) {
+            return NOT_PARSED;
+        }
+        int month = monthIndex / 3 + 1;
+        int day = digits(displayTime, 4, 2);
+        int year = digits(displayTime, 7, 4);
+        int hour = digits(displayTime, 13, hourLength);
+        int minute = digits(displayTime, 14 + hourLength, 2);
+        String amPm = displayTime.substring(17 + hourLength);
+        boolean isPm = amPm.equalsIgnoreCase("pm");
+        if (day < 0 || year < 0 || hour < 1 || hour > 12 || minute < 0 || minute > 59
+                || !isPm && !amPm.equalsIgnoreCase("am")) {
+            return NOT_PARSED;
+        }
+
+        try {
+            long epochDay = LocalDate.of(year, month, day).toEpochDay();
+            return epochDay * 86_400 + ((hour % 12 + (isPm ? 12 : 0)) * 60 + minute) * 60;
+        } catch (DateTimeException e) {
+            return NOT_PARSED;
+        }
+    }
+
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Returns the current local time.
+     *
+     * @return The current time in epoch seconds.
+     */
+    public static long now() {
+        return toEpochSecond(LocalDateTime.now());
+    }
+
+    /**
+     * Converts a local date-time to epoch seconds.
+     *
+     * @param dateTime The local date-time.
+     * @return The time in epoch seconds.
+     */
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Formats epoch seconds in display form.
+     *
+     * @param epochSecond The time in epoch seconds.
+     * @return The time in display form.
+     */
+    public static String format(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(DISPLAY_FORMATTER);
+    }
+}
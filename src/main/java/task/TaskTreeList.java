@@ -0,0 +1,390 @@
+package task;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.SplittableRandom;
+
+/**
+ * A task list held in a balanced tree, so that getting, inserting and removing a task at any position
+ * takes logarithmic time instead of shifting the tasks after it.
+ * <p>
+ * The tree is a treap: each node records the size of its subtree, which locates a position by walking
+ * down from the root, and has a random priority that keeps the tree balanced with high probability.
+ * Nodes also point to their parent, so the position of a task can be found from its node, which a map
+ * from tasks to nodes provides. A task can therefore only be in the list once.
+ */
+class TaskTreeList extends AbstractList<Task> {
+    private final SplittableRandom random = new SplittableRandom();
+    private final Map<Task, Node> nodes;
+    private Node root;
+
+    private static class Node {
+        private Task task;
+        private int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        private Node(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Constructs a TaskTreeList holding the given tasks, building a balanced tree in one pass.
+     *
+     * @param tasks The tasks in list order.
+     * @throws IllegalArgumentException If a task appears more than once.
+     */
+    TaskTreeList(List<Task> tasks) {
+        nodes = new IdentityHashMap<>(tasks.size());
+        rebuild(tasks);
+    }
+
+    /**
+     * Replaces the tasks in the tree with the given ones, building a balanced tree in one pass.
+     */
+    private void rebuild(List<Task> tasks) {
+        // Handing out priorities from highest to lowest level by level keeps the balanced tree a valid treap
+        int[] priorities = random.ints(tasks.size()).toArray();
+        Arrays.sort(priorities);
+        root = build(tasks, 0, tasks.size());
+
+        int next = priorities.length;
+        Queue<Node> level = new ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            Node node = level.remove();
+            node.priority = priorities[--next];
+            if (node.left != null) {
+                level.add(node.left);
+            }
+            if (node.right != null) {
+                level.add(node.right);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size());
+        return nodeAt(index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkIndex(index, size());
+        Node node = nodeAt(index);
+        Task previous = node.task;
+        if (previous != task) {
+            register(task, node);
+            nodes.remove(previous);
+            node.task = task;
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        checkIndex(index, size() + 1);
+        Node node = new Node(task, random.nextInt());
+        register(task, node);
+        insert(node, index);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkIndex(index, size());
+        Node node = nodeAt(index);
+        unlink(node);
+        nodes.remove(node.task);
+        modCount++;
+        return node.task;
+    }
+
+    /**
+     * Removes the tasks at the given positions by walking the tree once and building a new tree from the
+     * tasks that are left, instead of removing the tasks one by one.
+     *
+     * @param positions The zero-based positions of the tasks to remove.
+     * @return The removed tasks, in list order.
+     */
+    List<Task> removePositions(BitSet positions) {
+        List<Task> kept = new ArrayList<>(size());
+        List<Task> removed = new ArrayList<>();
+        int index = 0;
+        for (Node node = root == null ? null : leftmost(root); node != null; node = successor(node)) {
+            if (positions.get(index++)) {
+                removed.add(node.task);
+            } else {
+                kept.add(node.task);
+            }
+        }
+        if (!removed.isEmpty()) {
+            nodes.clear();
+            rebuild(kept);
+            modCount++;
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        nodes.clear();
+        modCount++;
+    }
+
+    /**
+     * Returns the position of the task in logarithmic time.
+     */
+    @Override
+    public int indexOf(Object task) {
+        Node node = nodes.get(task);
+        return node == null ? -1 : rank(node);
+    }
+
+    @Override
+    public int lastIndexOf(Object task) {
+        return indexOf(task);
+    }
+
+    @Override
+    public boolean contains(Object task) {
+        return nodes.containsKey(task);
+    }
+
+    /**
+     * Returns an iterator that walks the tree in order, taking constant time per task on average.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private Node next = root == null ? null : leftmost(root);
+            private Node last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = successor(next);
+                return last.task;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                unlink(last);
+                nodes.remove(last.task);
+                last = null;
+                expectedModCount = ++modCount;
+            }
+        };
+    }
+
+    private Node build(List<Task> tasks, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node node = new Node(tasks.get(middle), 0);
+        register(node.task, node);
+        node.left = build(tasks, from, middle);
+        node.right = build(tasks, middle + 1, to);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+        node.size = to - from;
+        return node;
+    }
+
+    private void register(Task task, Node node) {
+        if (nodes.putIfAbsent(task, node) != null) {
+            throw new IllegalArgumentException("Task is already in the list: " + task);
+        }
+    }
+
+    private Node nodeAt(int index) {
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private int rank(Node node) {
+        int rank = size(node.left);
+        for (Node child = node; child.parent != null; child = child.parent) {
+            if (child == child.parent.right) {
+                rank += size(child.parent.left) + 1;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Inserts a node as a leaf at the given position and rotates it up until its parent has a higher priority.
+     */
+    private void insert(Node node, int index) {
+        if (root == null) {
+            root = node;
+            return;
+        }
+
+        Node parent = root;
+        while (true) {
+            parent.size++;
+            int leftSize = size(parent.left);
+            if (index <= leftSize) {
+                if (parent.left == null) {
+                    parent.left = node;
+                    break;
+                }
+                parent = parent.left;
+            } else {
+                index -= leftSize + 1;
+                if (parent.right == null) {
+                    parent.right = node;
+                    break;
+                }
+                parent = parent.right;
+            }
+        }
+        node.parent = parent;
+
+        while (node.parent != null && node.parent.priority < node.priority) {
+            rotateUp(node);
+        }
+    }
+
+    /**
+     * Rotates a node down until it is a leaf and then removes it.
+     */
+    private void unlink(Node node) {
+        while (node.left != null || node.right != null) {
+            if (node.right == null || (node.left != null && node.left.priority > node.right.priority)) {
+                rotateUp(node.left);
+            } else {
+                rotateUp(node.right);
+            }
+        }
+
+        Node parent = node.parent;
+        if (parent == null) {
+            root = null;
+        } else if (parent.left == node) {
+            parent.left = null;
+        } else {
+            parent.right = null;
+        }
+        for (Node ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            ancestor.size--;
+        }
+        node.parent = null;
+    }
+
+    /**
+     * Swaps a node with its parent, keeping the order of the tasks.
+     */
+    private void rotateUp(Node node) {
+        Node parent = node.parent;
+        Node grandparent = parent.parent;
+        if (parent.left == node) {
+            parent.left = node.right;
+            if (node.right != null) {
+                node.right.parent = parent;
+            }
+            node.right = parent;
+        } else {
+            parent.right = node.left;
+            if (node.left != null) {
+                node.left.parent = parent;
+            }
+            node.left = parent;
+        }
+        parent.parent = node;
+        node.parent = grandparent;
+        if (grandparent == null) {
+            root = node;
+        } else if (grandparent.left == parent) {
+            grandparent.left = node;
+        } else {
+            grandparent.right = node;
+        }
+        parent.size = 1 + size(parent.left) + size(parent.right);
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node leftmost(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            return leftmost(node.right);
+        }
+        while (node.parent != null && node.parent.right == node) {
+            node = node.parent;
+        }
+        return node.parent;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+}
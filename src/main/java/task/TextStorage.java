@@ -0,0 +1,352 @@
+package task;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import action.Parser;
+import exceptions.TabbyException;
+import tabby.Ui;
+
+/**
+ * The TextStorage class is responsible for managing file I/O operations related to task storage.
+ * It handles loading tasks from a text file and saving tasks to a text file, one task per line.
+ */
+public class TextStorage implements DurableStorage {
+    static final long PARALLEL_LOAD_THRESHOLD = 1024 * 1024;
+    static final long SNAPSHOT_THRESHOLD = 1024 * 1024;
+
+    public final String directory;
+    public final String fileName;
+    private final Ui ui;
+    // Task lines that could not be read when the file was loaded, written back after the tasks on every save
+    private volatile List<String> unreadableLines = List.of();
+
+    /**
+     * Constructs a TextStorage object to manage task files.
+     *
+     * @param directory The directory where the task file is stored.
+     * @param fileName  The name of the file that contains the tasks.
+     * @param ui        The Ui instance used to display messages and errors.
+     */
+    public TextStorage(String directory, String fileName, Ui ui) {
+        this.directory = directory;
+        this.fileName = fileName;
+        this.ui = ui;
+    }
+
+    /**
+     * Loads all tasks from the task file in a single pass.
+     * Each line is parsed straight into a {@code Task}; nothing is written back to the file while loading.
+     * Lines that do not look like tasks are skipped and counted as rejected. A line that looks like a task
+     * but cannot be read, such as a hand-edited deadline whose date is not in display form, is kept in the
+     * result and written back unchanged after the tasks on every save, so that it is never lost.
+     * Files of at least {@code PARALLEL_LOAD_THRESHOLD} bytes are read in one go and parsed in parallel.
+     * <p>
+     * Files of at least {@code SNAPSHOT_THRESHOLD} bytes also get a {@link TaskSnapshot} after they are parsed,
+     * and later loads read that snapshot instead of parsing while the file is unchanged.
+     *
+     * @return A LoadResult holding the loaded tasks, the number of rejected lines and the time taken.
+     */
+    @Override
+    public LoadResult loadTasks() {
+        File folder = new File(directory);
+
+        // Ensure the directory exists
+        if (!folder.exists()) {
+            folder.mkdir();
+        }
+
+        File taskFile = new File(String.format("%s/%s", directory, fileName));
+
+        // Create the task file if it doesn't exist
+        if (!taskFile.exists()) {
+            try {
+                taskFile.createNewFile();
+            } catch (IOException e) {
+                ui.error("Error creating file: " + taskFile.getAbsolutePath());
+            }
+            return LoadResult.empty();
+        }
+
+        File snapshotFile = getSnapshotFile();
+        LoadResult snapshot = TaskSnapshot.read(snapshotFile, taskFile);
+        if (snapshot != null) {
+            // Snapshots are only taken of files without unreadable lines
+            unreadableLines = List.of();
+            return snapshot;
+        }
+
+        LoadResult result = parseTasks(taskFile);
+        unreadableLines = result.getUnreadableLines();
+        if (taskFile.length() >= SNAPSHOT_THRESHOLD && unreadableLines.isEmpty()) {
+            writeSnapshot(taskFile, result.getTasks(), result.getRejectedCount());
+        }
+        return result;
+    }
+
+    /**
+     * Parses the task file, in parallel if it is large.
+     *
+     * @param taskFile The task file to read.
+     * @return A LoadResult holding the loaded tasks, the number of rejected lines and the time taken.
+     */
+    private LoadResult parseTasks(File taskFile) {
+        if (taskFile.length() >= PARALLEL_LOAD_THRESHOLD) {
+            try {
+                return ParallelTaskLoader.load(taskFile);
+            } catch (IOException e) {
+                ui.error("Unable to read task file in one go, reading it line by line: " + e.getMessage());
+            }
+        }
+        return scanTasks(taskFile);
+    }
+
+    /**
+     * Reads the task file one line at a time.
+     *
+     * @param taskFile The task file to read.
+     * @return A LoadResult holding the loaded tasks, the number of rejected lines and the time taken.
+     */
+    LoadResult scanTasks(File taskFile) {
+        long startTime = System.nanoTime();
+        ArrayList<Task> taskList = new ArrayList<>();
+        int rejectedCount = 0;
+        List<String> unreadable = new ArrayList<>();
+
+        // Read tasks from the file
+        try (Scanner scanner = new Scanner(taskFile)) {
+            while (scanner.hasNext()) {
+                String data = scanner.nextLine().trim();
+                if (Parser.validateInput(data)) {
+                    continue;
+                }
+                Task task;
+                try {
+                    task = parseTask(data);
+                } catch (IllegalStateException e) {
+                    unreadable.add(data);
+                    continue;
+                }
+                if (task == null) {
+                    rejectedCount++;
+                } else {
+                    taskList.add(task);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            ui.error("File not found - " + taskFile.getAbsolutePath());
+        }
+
+        return new LoadResult(taskList, rejectedCount, unreadable, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Parses a single line of the task file into a task. A line may end with a tab and the ID of the task;
+     * tasks from lines without one have no ID yet.
+     *
+     * @param data A non-empty line from the task file.
+     * @return The parsed task, or {@code null} if the line is not a valid task.
+     * @throws IllegalStateException If the line looks like a task but its details cannot be read, such as a
+     *     deadline whose date is not in the form Tabby writes. Dropping such a line would delete the task on
+     *     the next save, so loaders keep it as it is instead.
+     */
+    static Task parseTask(String data) {
+        int separator = data.lastIndexOf(Task.ID_SEPARATOR);
+        if (separator < 0) {
+            return parseTaskDetails(data);
+        }
+
+        long id;
+        try {
+            id = Long.parseLong(data.substring(separator + Task.ID_SEPARATOR.length()));
+        } catch (NumberFormatException e) {
+            return parseTaskDetails(data);
+        }
+        Task task = parseTaskDetails(data.substring(0, separator));
+        if (task != null && id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static Task parseTaskDetails(String data) {
+        Parser.TaskLine taskLine = Parser.parseFileRead(data);
+        if (taskLine == null || Parser.validateInput(taskLine.description())) {
+            return null;
+        }
+
+        String description = taskLine.description();
+        boolean isDone = taskLine.isDone();
+        try {
+            switch (taskLine.type()) {
+            case 'T':
+                return new ToDo(description.trim(), isDone);
+            case 'D':
+                Parser.DeadlineDetails deadlineDetails = Parser.parseDeadline(description, false);
+                return new Deadline(deadlineDetails.description(), isDone, deadlineDetails.by());
+            case 'E':
+                Parser.EventDetails eventDetails = Parser.parseEvent(description, false);
+                return new Event(eventDetails.description(), isDone, eventDetails.from(), eventDetails.to());
+            default:
+                return null;
+            }
+        } catch (TabbyException e) {
+            throw new IllegalStateException("Unreadable task: " + data, e);
+        }
+    }
+
+    /**
+     * Saves the list of tasks to the task file.
+     *
+     * @param taskList The list of tasks to save.
+     */
+    @Override
+    public void saveTasks(List<Task> taskList) {
+        File folder = new File(this.directory);
+
+        // Ensure the directory exists
+        if (!folder.exists()) {
+            folder.mkdir();
+        }
+
+        File taskFile = new File(folder, this.fileName);
+
+        // Write tasks to the file
+        try {
+            writeTasks(taskFile, taskList, unreadableLines);
+        } catch (IOException e) {
+            ui.error("Error writing to file: " + taskFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Saves the list of tasks to a temporary file, forces it to disk and moves it over the task file.
+     *
+     * @param taskList The list of tasks to save.
+     * @throws UncheckedIOException If the tasks could not be written and forced to disk.
+     */
+    @Override
+    public void saveTasksDurably(List<Task> taskList) {
+        File folder = new File(this.directory);
+        if (!folder.exists()) {
+            folder.mkdir();
+        }
+
+        File taskFile = new File(folder, this.fileName);
+        File tempFile = new File(folder, this.fileName + ".tmp");
+        try {
+            writeTasks(tempFile, taskList, unreadableLines);
+            DurableFiles.replace(tempFile, taskFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing to file: " + taskFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Refreshes the snapshot of a large task file if the file has changed since the snapshot was taken.
+     * Pending changes must already be saved, so that {@code taskList} matches the task file.
+     *
+     * @param taskList The list of tasks held in the task file.
+     */
+    @Override
+    public void close(List<Task> taskList) {
+        File taskFile = new File(directory, fileName);
+        if (taskFile.length() >= SNAPSHOT_THRESHOLD && unreadableLines.isEmpty()
+                && !TaskSnapshot.isCurrent(getSnapshotFile(), taskFile)) {
+            writeSnapshot(taskFile, taskList, 0);
+        }
+    }
+
+    /**
+     * Returns the next ID recorded next to the task file.
+     *
+     * @return The recorded next ID, or 0 if none is recorded.
+     */
+    @Override
+    public long loadNextId() {
+        return NextIdFile.read(NextIdFile.of(directory, fileName));
+    }
+
+    /**
+     * Records the next ID next to the task file.
+     *
+     * @param nextId The next ID to give a task.
+     */
+    @Override
+    public void saveNextId(long nextId) {
+        File nextIdFile = NextIdFile.of(directory, fileName);
+        try {
+            NextIdFile.write(nextIdFile, nextId);
+        } catch (IOException e) {
+            ui.error("Error writing to file: " + nextIdFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Returns the task lines that could not be read when the task file was last loaded.
+     *
+     * @return The unreadable lines, which every save writes back after the tasks.
+     */
+    List<String> getUnreadableLines() {
+        return unreadableLines;
+    }
+
+    /**
+     * Returns the file holding the snapshot of the task file.
+     *
+     * @return The snapshot file, stored next to the task file.
+     */
+    File getSnapshotFile() {
+        return new File(directory, fileName + ".snap");
+    }
+
+    private void writeSnapshot(File taskFile, List<Task> taskList, int rejectedCount) {
+        try {
+            TaskSnapshot.write(getSnapshotFile(), taskFile, taskList, rejectedCount);
+        } catch (IOException e) {
+            ui.error("Unable to write task snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given tasks to a file, one task per line, replacing its contents.
+     * Tasks that have not changed since they were last written reuse the bytes of their line.
+     *
+     * @param file     The file to write to.
+     * @param taskList The tasks to write.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeTasks(File file, List<Task> taskList) throws IOException {
+        writeTasks(file, taskList, List.of());
+    }
+
+    /**
+     * Writes the given tasks to a file like {@link #writeTasks(File, List)}, followed by lines kept as they are.
+     *
+     * @param file      The file to write to.
+     * @param taskList  The tasks to write.
+     * @param keptLines Lines to write after the tasks, such as task lines that could not be read.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeTasks(File file, List<Task> taskList, List<String> keptLines) throws IOException {
+        byte[] lineSeparator = System.lineSeparator().getBytes(Task.FILE_CHARSET);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            for (Task task : taskList) {
+                out.write(task.toFileBytes());
+                out.write(lineSeparator);
+            }
+            for (String line : keptLines) {
+                out.write(line.getBytes(Task.FILE_CHARSET));
+                out.write(lineSeparator);
+            }
+        }
+    }
+}
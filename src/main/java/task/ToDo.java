@@ -16,11 +16,11 @@ public class ToDo extends Task {
     }
 
     /**
-     * Returns a string representation of the to-do task.
+     * Builds the string representation of the to-do task for the given status.
      * @return A formatted string representing the to-do task.
      */
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    String render(boolean isDone) {
+        return "[T]" + super.render(isDone);
     }
 }
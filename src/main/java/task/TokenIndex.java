@@ -0,0 +1,242 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from the words of each task to the tasks containing them. Words are the runs of
+ * letters and digits in the description and the date text of a task, compared ignoring case.
+ * <p>
+ * A query is a list of keywords that must all appear, and {@code or} separates alternatives, so
+ * {@code book or report draft} finds tasks containing "book" and tasks containing both "report" and "draft".
+ * Answering a query only touches the postings of its keywords, never the rest of the list.
+ * <p>
+ * The words are also kept in a {@link BkTree} for finding tasks by misspelled keywords. Words are not
+ * taken out of the tree when their last task goes, since the tree cannot remove them; it is rebuilt
+ * from the words still in use once most of its words are gone.
+ */
+class TokenIndex implements TaskIndex {
+    private static final int MIN_WORDS_TO_REBUILD = 1024;
+
+    private final Map<String, Set<Task>> postings = new HashMap<>();
+    private final BkTree wordTree = new BkTree();
+    private final TaskOrder order;
+
+    /**
+     * Constructs an empty TokenIndex.
+     *
+     * @param order The order of the tasks in the list, kept up to date alongside this index.
+     */
+    TokenIndex(TaskOrder order) {
+        this.order = order;
+    }
+
+    /**
+     * Builds an index over the given tasks.
+     *
+     * @param tasks The tasks to index.
+     * @return An index holding the words of every task.
+     */
+    static TokenIndex of(List<Task> tasks) {
+        // Lists that build their tasks on demand may hand out a new task object on every pass, so
+        // the order and the index must be filled in the same pass
+        TaskOrder order = new TaskOrder();
+        TokenIndex index = new TokenIndex(order);
+        for (Task task : tasks) {
+            order.add(task);
+            index.add(task);
+        }
+        return index;
+    }
+
+    @Override
+    public void add(Task task) {
+        for (String token : tokensOf(task)) {
+            postings.computeIfAbsent(token, word -> {
+                wordTree.add(word);
+                return new HashSet<>(2);
+            }).add(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        for (String token : tokensOf(task)) {
+            Set<Task> tasks = postings.get(token);
+            if (tasks != null && tasks.remove(task) && tasks.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Replaces a task. A task replaced by itself only changed its status, which is not indexed,
+     * so nothing needs to be done.
+     */
+    @Override
+    public void replace(Task previous, Task task) {
+        if (previous != task) {
+            remove(previous);
+            add(task);
+        }
+    }
+
+    @Override
+    public void clear() {
+        postings.clear();
+        wordTree.clear();
+    }
+
+    /**
+     * Finds the tasks matching a query, in the order they were added.
+     *
+     * @param query The keywords to look for, with {@code or} between alternatives.
+     * @return The matching tasks.
+     */
+    List<Task> find(String query) {
+        Set<Task> matches = new HashSet<>();
+        for (List<String> keywords : parseQuery(query)) {
+            matches.addAll(findAll(keywords));
+        }
+
+        List<Task> result = new ArrayList<>(matches);
+        order.sort(result);
+        return result;
+    }
+
+    /**
+     * Finds the tasks containing words close to every keyword, allowing one typing mistake in keywords
+     * of up to four letters and two in longer ones. Tasks are ranked by the total number of mistakes,
+     * then by their order in the list.
+     *
+     * @param query The keywords to look for, possibly misspelled.
+     * @return The matching tasks, closest first.
+     */
+    List<Task> findFuzzy(String query) {
+        if (wordTree.size() > MIN_WORDS_TO_REBUILD && wordTree.size() > 2 * postings.size()) {
+            wordTree.clear();
+            postings.keySet().forEach(wordTree::add);
+        }
+
+        Map<Task, Integer> totalDistances = null;
+        for (String keyword : new HashSet<>(tokenize(query))) {
+            Map<Task, Integer> distances = new IdentityHashMap<>();
+            wordTree.forEachWithin(keyword, keyword.length() <= 4 ? 1 : 2, (word, distance) -> {
+                for (Task task : postings.getOrDefault(word, Set.of())) {
+                    distances.merge(task, distance, Math::min);
+                }
+            });
+            if (totalDistances != null) {
+                Map<Task, Integer> previous = totalDistances;
+                distances.keySet().retainAll(previous.keySet());
+                distances.replaceAll((task, distance) -> distance + previous.get(task));
+            }
+            totalDistances = distances;
+        }
+        if (totalDistances == null) {
+            return List.of();
+        }
+
+        Map<Task, Integer> ranks = totalDistances;
+        List<Task> result = new ArrayList<>(ranks.keySet());
+        result.sort(Comparator.<Task>comparingInt(ranks::get).thenComparing(order.inListOrder()));
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct words in the index.
+     *
+     * @return The number of words.
+     */
+    int getTokenCount() {
+        return postings.size();
+    }
+
+    /**
+     * Intersects the postings of the keywords, starting from the shortest so that the work done
+     * is bounded by the rarest keyword.
+     */
+    private Set<Task> findAll(List<String> keywords) {
+        Set<Task> rarest = null;
+        for (String keyword : keywords) {
+            Set<Task> tasks = postings.get(keyword);
+            if (tasks == null) {
+                return Set.of();
+            }
+            if (rarest == null || tasks.size() < rarest.size()) {
+                rarest = tasks;
+            }
+        }
+
+        Set<Task> matches = new HashSet<>();
+        for (Task task : rarest) {
+            if (containsAll(task, keywords)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private boolean containsAll(Task task, List<String> keywords) {
+        for (String keyword : keywords) {
+            if (!postings.get(keyword).contains(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a query into its alternatives, each a list of keywords that must all match.
+     * The word {@code and} may be used between keywords and is ignored.
+     */
+    private static List<List<String>> parseQuery(String query) {
+        List<List<String>> alternatives = new ArrayList<>();
+        List<String> keywords = new ArrayList<>();
+        for (String token : tokenize(query)) {
+            if (token.equals("or")) {
+                if (!keywords.isEmpty()) {
+                    alternatives.add(keywords);
+                }
+                keywords = new ArrayList<>();
+            } else if (!token.equals("and")) {
+                keywords.add(token);
+            }
+        }
+        if (!keywords.isEmpty()) {
+            alternatives.add(keywords);
+        }
+        return alternatives;
+    }
+
+    private static Set<String> tokensOf(Task task) {
+        return new HashSet<>(tokenize(task.getSearchText()));
+    }
+
+    /**
+     * Splits text into lower case words made of letters and digits.
+     *
+     * @param text The text to split.
+     * @return The words in the text, in the order they appear.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
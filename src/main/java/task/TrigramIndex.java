@@ -0,0 +1,175 @@
+package task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index from every run of three characters in the description and date text of a task to the tasks
+ * containing it, used to find tasks whose string form contains a piece of text.
+ * <p>
+ * A task containing the text must contain all of its trigrams, so only the tasks in the shortest posting
+ * list of those trigrams are candidates, and each candidate is checked with {@link String#contains}.
+ * Texts shorter than three characters, or containing the brackets of the status prefix, cannot be
+ * narrowed down this way and are matched against every task, so the results are always the same as
+ * checking each task in turn.
+ * <p>
+ * The index takes several times the memory of the tasks themselves, so it is only built by the first
+ * {@link #find} that needs it. Until then, changes to the list are ignored.
+ */
+class TrigramIndex implements TaskIndex {
+    // Rough sizes of the objects held per trigram and per posting on a 64-bit JVM with compressed oops
+    private static final long BYTES_PER_TRIGRAM = 128;
+    private static final long BYTES_PER_POSTING = 44;
+
+    private final Map<Long, Set<Task>> postings = new HashMap<>();
+    private final TaskOrder order;
+    private long postingCount;
+    private boolean isBuilt;
+
+    /**
+     * Constructs an empty TrigramIndex.
+     *
+     * @param order The order of the tasks in the list, kept up to date alongside this index.
+     */
+    TrigramIndex(TaskOrder order) {
+        this.order = order;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (!isBuilt) {
+            return;
+        }
+        for (long trigram : trigramsOf(task.getSearchText())) {
+            if (postings.computeIfAbsent(trigram, key -> new HashSet<>(2)).add(task)) {
+                postingCount++;
+            }
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        if (!isBuilt) {
+            return;
+        }
+        for (long trigram : trigramsOf(task.getSearchText())) {
+            Set<Task> tasks = postings.get(trigram);
+            if (tasks != null && tasks.remove(task)) {
+                postingCount--;
+                if (tasks.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces a task. A task replaced by itself only changed its status, which is not indexed,
+     * so nothing needs to be done.
+     */
+    @Override
+    public void replace(Task previous, Task task) {
+        if (previous != task) {
+            remove(previous);
+            add(task);
+        }
+    }
+
+    @Override
+    public void clear() {
+        postings.clear();
+        postingCount = 0;
+        isBuilt = false;
+    }
+
+    /**
+     * Finds the tasks whose string form contains the text, in list order. The index is built from the
+     * list the first time the text can be looked up.
+     *
+     * @param text     The text to look for, matched exactly.
+     * @param allTasks Every task in the list, checked in turn when the text cannot be looked up.
+     * @return The matching tasks.
+     */
+    List<Task> find(String text, List<Task> allTasks) {
+        if (!canLookUp(text)) {
+            return scan(allTasks, text);
+        }
+        if (!isBuilt) {
+            isBuilt = true;
+            for (Task task : allTasks) {
+                add(task);
+            }
+        }
+
+        Set<Task> candidates = null;
+        for (long trigram : trigramsOf(text)) {
+            Set<Task> tasks = postings.get(trigram);
+            if (tasks == null) {
+                return List.of();
+            }
+            if (candidates == null || tasks.size() < candidates.size()) {
+                candidates = tasks;
+            }
+        }
+
+        List<Task> matches = new ArrayList<>();
+        for (Task task : candidates) {
+            if (task.toString().contains(text)) {
+                matches.add(task);
+            }
+        }
+        order.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Finds the tasks whose string form contains the text by checking each of them.
+     *
+     * @param tasks The tasks to check.
+     * @param text  The text to look for, matched exactly.
+     * @return The matching tasks, in list order.
+     */
+    static List<Task> scan(List<Task> tasks, String text) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.toString().contains(text)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns a one-line summary of the size of the index.
+     *
+     * @return A string with the number of trigrams and postings and the estimated memory they take.
+     */
+    String summary() {
+        if (!isBuilt) {
+            return "not built until the first find";
+        }
+        long bytes = postings.size() * BYTES_PER_TRIGRAM + postingCount * BYTES_PER_POSTING;
+        return String.format("%d trigrams, %d postings, about %.1f MB", postings.size(), postingCount,
+                bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Returns whether every match of the text lies within the indexed text of a task. A match that
+     * reaches into the status prefix, such as "[D][X]", must contain one of its brackets.
+     */
+    private static boolean canLookUp(String text) {
+        return text.length() >= 3 && text.indexOf('[') < 0 && text.indexOf(']') < 0;
+    }
+
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
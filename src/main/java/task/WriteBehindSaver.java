@@ -0,0 +1,155 @@
+package task;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves tasks on a single background thread so that commands do not wait for disk writes.
+ * Marking the saver dirty schedules one save after the debounce interval; every change made
+ * before that save runs is written by it, so a burst of changes costs a single write.
+ * <p>
+ * Each change gets an increasing ticket. Callers that must not go on until their change is stored
+ * can wait for it with {@link #awaitSaved(long)}, which turns the debounce interval into a group-commit
+ * window: all changes made within it share one save. If a save fails, the callers waiting for the
+ * changes it held get its error instead, and those changes stay unsaved until the next save.
+ */
+public class WriteBehindSaver {
+    private final Runnable saveAction;
+    private final long debounceMillis;
+    private final Object saveLock = new Object();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tabby-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScheduledFuture<?> pendingSave;
+    private long lastTicket;
+    private long savedTicket;
+    // The last ticket of the most recent save that failed, and its error
+    private long failedTicket;
+    private RuntimeException saveError;
+    private long saveCount;
+    private long largestBatch;
+    private long totalSaveNanos;
+    private long longestSaveNanos;
+
+    /**
+     * Constructs a WriteBehindSaver.
+     *
+     * @param saveAction     The action that writes the latest snapshot of the tasks.
+     * @param debounceMillis How long to wait after the first unsaved change before saving.
+     */
+    public WriteBehindSaver(Runnable saveAction, long debounceMillis) {
+        this.saveAction = saveAction;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Records that there are unsaved changes and schedules a save if none is pending.
+     *
+     * @return The ticket of this change, to pass to {@link #awaitSaved(long)}.
+     */
+    public synchronized long markDirty() {
+        if (pendingSave == null) {
+            pendingSave = writer.schedule(this::runScheduledSave, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+        return ++lastTicket;
+    }
+
+    /**
+     * Blocks until the change with the given ticket has been saved.
+     *
+     * @param ticket The ticket returned by {@link #markDirty()}.
+     * @throws RuntimeException The error of the save that should have held the change, if it failed.
+     */
+    public synchronized void awaitSaved(long ticket) {
+        boolean isInterrupted = false;
+        while (savedTicket < ticket) {
+            if (ticket <= failedTicket) {
+                if (isInterrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                throw saveError;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Saves immediately on the calling thread if there are unsaved changes.
+     * Waits for a background save that is already writing to finish first.
+     *
+     * @throws RuntimeException The error of the save, if it failed.
+     */
+    public void flush() {
+        synchronized (saveLock) {
+            long ticket;
+            synchronized (this) {
+                if (savedTicket == lastTicket) {
+                    return;
+                }
+                ticket = lastTicket;
+            }
+
+            long startTime = System.nanoTime();
+            try {
+                saveAction.run();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    failedTicket = ticket;
+                    saveError = e;
+                    notifyAll();
+                }
+                throw e;
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            synchronized (this) {
+                saveCount++;
+                largestBatch = Math.max(largestBatch, ticket - savedTicket);
+                totalSaveNanos += elapsedNanos;
+                longestSaveNanos = Math.max(longestSaveNanos, elapsedNanos);
+                savedTicket = ticket;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the saves so far.
+     *
+     * @return A string with the number of saves, the changes per save and the time taken by each save.
+     */
+    public synchronized String summary() {
+        if (saveCount == 0) {
+            return "no saves yet";
+        }
+        return String.format("%d saves, %.1f changes per save (largest %d), %.2f ms per save (longest %.2f ms)",
+                saveCount, (double) savedTicket / saveCount, largestBatch,
+                totalSaveNanos / 1e6 / saveCount, longestSaveNanos / 1e6);
+    }
+
+    /**
+     * Runs a scheduled save. Changes made while this save is writing schedule the next one.
+     */
+    private void runScheduledSave() {
+        synchronized (this) {
+            pendingSave = null;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // The error has been handed to the callers waiting for the save
+        }
+    }
+}
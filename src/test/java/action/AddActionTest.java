@@ -5,11 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import exceptions.TabbyException;
 import org.junit.jupiter.api.Test;
 import tabby.Ui;
-import task.Storage;
+import task.TextStorage;
 import task.TaskManager;
 import task.Task;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class AddActionTest {
     private static final String DIRECTORY = "./data";
@@ -19,7 +19,7 @@ public class AddActionTest {
     public void addToDoTest() {
         Ui ui = new Ui();
 
-        Storage storage = new Storage(DIRECTORY, FILENAME, ui);
+        TextStorage storage = new TextStorage(DIRECTORY, FILENAME, ui);
         TaskManager taskManager = new TaskManager(storage, ui);
         taskManager.getTasks().clear();
 
@@ -30,7 +30,7 @@ public class AddActionTest {
         } catch (TabbyException e) {
             System.err.println(e.getMessage());
         }
-        ArrayList<Task> taskList = taskManager.getTasks();
+        List<Task> taskList = taskManager.getTasks();
         String output = "";
         for (Task task : taskList) {
             output = task.toString();
@@ -44,7 +44,7 @@ public class AddActionTest {
     public void addDeadlineTest() {
         Ui ui = new Ui();
 
-        Storage storage = new Storage(DIRECTORY, FILENAME, ui);
+        TextStorage storage = new TextStorage(DIRECTORY, FILENAME, ui);
         TaskManager taskManager = new TaskManager(storage, ui);
         taskManager.getTasks().clear();
 
@@ -55,7 +55,7 @@ public class AddActionTest {
         } catch (TabbyException e) {
             System.err.println(e.getMessage());
         }
-        ArrayList<Task> taskList = taskManager.getTasks();
+        List<Task> taskList = taskManager.getTasks();
         String output = "";
         for (Task task : taskList) {
             output = task.toString();
@@ -70,7 +70,7 @@ public class AddActionTest {
     public void addEventTest() {
         Ui ui = new Ui();
 
-        Storage storage = new Storage(DIRECTORY, FILENAME, ui);
+        TextStorage storage = new TextStorage(DIRECTORY, FILENAME, ui);
         TaskManager taskManager = new TaskManager(storage, ui);
         taskManager.getTasks().clear();
 
@@ -81,7 +81,7 @@ public class AddActionTest {
         } catch (TabbyException e) {
             System.err.println(e.getMessage());
         }
-        ArrayList<Task> taskList = taskManager.getTasks();
+        List<Task> taskList = taskManager.getTasks();
         String output = "";
         for (Task task : taskList) {
             output = task.toString();
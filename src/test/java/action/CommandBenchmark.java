@@ -0,0 +1,126 @@
+package action;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import exceptions.TabbyException;
+import tabby.Ui;
+import task.LoadResult;
+import task.Storage;
+import task.Task;
+import task.TaskManager;
+
+/**
+ * Measures how many commands per second are parsed and how many bytes are allocated per command.
+ * The first mix only parses valid commands into actions and the second only invalid ones, the third only
+ * parses the details of deadlines and events, and the fourth runs whole commands that add tasks.
+ * Run with {@code java -cp <main and test classes> action.CommandBenchmark [commands]}.
+ */
+public class CommandBenchmark {
+    private static final int DEFAULT_COMMANDS = 2_000_000;
+    private static final int RUNS = 5;
+    private static final int TASKS_BEFORE_CLEARING = 100;
+
+    private static final String[] PARSE_MIX = {
+        "list",
+        "mark 3",
+        "unmark 3",
+        "delete #12",
+        "find book",
+        "find~ bok",
+        "search return book",
+        "reminder within 3d",
+        "todo walk dog",
+        "deadline return book /by 2/12/2099 1800",
+        "event project meeting /from 2/12/2099 1800 /to 2/12/2099 2000",
+    };
+    private static final String[] ERROR_MIX = {
+        "",
+        "walk dog",
+        "todo",
+        "mark three",
+        "unmark -3",
+        "delete #0",
+        "reminder soon",
+        "reminder within 3y",
+        "find",
+        "deadlines return book",
+        "events project meeting",
+        "deadline return book /by Sunday",
+        "deadline return book /by 32/12/2099 1800",
+        "event project meeting /from 2/12/2099 6pm /to 2/12/2099 8pm",
+    };
+    private static final String DEADLINE_DETAILS = "return book /by 2/12/2099 1800";
+    private static final String EVENT_DETAILS = "project meeting /from 2/12/2099 1800 /to 2/12/2099 2000";
+    private static final String[] ADD_MIX = {
+        "todo walk dog",
+        "deadline return book /by 2/12/2099 1800",
+        "event project meeting /from 2/12/2099 1800 /to 2/12/2099 2000",
+    };
+
+    public static void main(String[] args) throws TabbyException {
+        int commands = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COMMANDS;
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new DiscardingStorage(), ui);
+
+        for (int run = 0; run < RUNS; run++) {
+            report("parse", run, commands, () -> {
+                for (int i = 0; i < commands; i++) {
+                    Action.userAction(PARSE_MIX[i % PARSE_MIX.length], false, true, ui);
+                }
+            });
+            report("error", run, commands, () -> {
+                for (int i = 0; i < commands; i++) {
+                    Action.tryUserAction(ERROR_MIX[i % ERROR_MIX.length], false, true, ui);
+                }
+            });
+            report("dates", run, commands, () -> {
+                for (int i = 0; i < commands; i++) {
+                    if (i % 2 == 0) {
+                        Parser.parseDeadline(DEADLINE_DETAILS, true);
+                    } else {
+                        Parser.parseEvent(EVENT_DETAILS, true);
+                    }
+                }
+            });
+            report("add  ", run, commands, () -> {
+                for (int i = 0; i < commands; i++) {
+                    if (i % TASKS_BEFORE_CLEARING == 0) {
+                        taskManager.getTasks().clear();
+                    }
+                    Action.userAction(ADD_MIX[i % ADD_MIX.length], false, true, ui).runTask(taskManager);
+                }
+            });
+        }
+    }
+
+    private static void report(String name, int run, int commands, Workload workload) throws TabbyException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long startBytes = threads.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        workload.run();
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - startBytes;
+        System.out.printf("run %d: %s %,12.0f commands/s, %6.0f bytes/command%n", run + 1, name,
+                commands / (elapsed / 1e9), (double) allocated / commands);
+    }
+
+    private interface Workload {
+        void run() throws TabbyException;
+    }
+
+    /**
+     * Keeps tasks in memory only, so that the benchmark measures parsing rather than the disk.
+     */
+    private static class DiscardingStorage implements Storage {
+        @Override
+        public LoadResult loadTasks() {
+            return LoadResult.empty();
+        }
+
+        @Override
+        public void saveTasks(List<Task> taskList) {
+        }
+    }
+}
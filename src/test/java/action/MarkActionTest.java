@@ -4,22 +4,27 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import exceptions.TabbyException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import tabby.Ui;
-import task.Storage;
+import task.TextStorage;
 import task.TaskManager;
 import task.Task;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.util.List;
 
 public class MarkActionTest {
     private static final String DIRECTORY = "./data";
     private static final String FILENAME = "tabby_data.txt";
 
+    @TempDir
+    Path tempDir;
+
     @Test
     public void MarkTest() {
         Ui ui = new Ui();
 
-        Storage storage = new Storage(DIRECTORY, FILENAME, ui);
+        TextStorage storage = new TextStorage(DIRECTORY, FILENAME, ui);
         TaskManager taskManager = new TaskManager(storage, ui);
         taskManager.getTasks().clear();
 
@@ -33,7 +38,7 @@ public class MarkActionTest {
         } catch (TabbyException e) {
             System.err.println(e.getMessage());
         }
-        ArrayList<Task> taskList = taskManager.getTasks();
+        List<Task> taskList = taskManager.getTasks();
         String output = "";
         for (Task task : taskList) {
             output = task.toString();
@@ -47,7 +52,7 @@ public class MarkActionTest {
     public void MarkInvalidTest() {
         Ui ui = new Ui();
 
-        Storage storage = new Storage(DIRECTORY, FILENAME, ui);
+        TextStorage storage = new TextStorage(DIRECTORY, FILENAME, ui);
         TaskManager taskManager = new TaskManager(storage, ui);
         taskManager.getTasks().clear();
 
@@ -58,7 +63,7 @@ public class MarkActionTest {
         } catch (TabbyException e) {
             System.err.println(e.getMessage());
         }
-        ArrayList<Task> taskList = taskManager.getTasks();
+        List<Task> taskList = taskManager.getTasks();
         String output = "";
         for (Task task : taskList) {
             output = task.toString();
@@ -67,4 +72,20 @@ public class MarkActionTest {
         String expected = "";
         assertEquals(expected, output);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void markByIdTest() throws TabbyException {
+        Ui ui = new Ui();
+
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, ui);
+        TaskManager taskManager = new TaskManager(storage, ui);
+
+        Action.userAction("todo walk dog", false, false, ui).runTask(taskManager);
+        Action.userAction("todo feed cat", false, false, ui).runTask(taskManager);
+        long id = taskManager.getTasks().get(1).getId();
+        Action.userAction("delete 1", false, false, ui).runTask(taskManager);
+        Action.userAction("mark #" + id, false, false, ui).runTask(taskManager);
+
+        assertEquals("[T][X] feed cat", taskManager.getTasks().get(0).toString());
+    }
+}
@@ -0,0 +1,90 @@
+package action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import exceptions.TabbyException;
+import exceptions.TabbyExceptionInvalidDeadlineInput;
+import exceptions.TabbyExceptionInvalidEventInput;
+import exceptions.TabbyExceptionInvalidTaskNumber;
+import org.junit.jupiter.api.Test;
+import tabby.Ui;
+import task.TaskTime;
+
+public class ParserTest {
+    @Test
+    public void scanCommandTest() {
+        Parser.CommandLine commandLine = Parser.scanCommand("  Find~ \t walk  dog ");
+        assertEquals(Command.FUZZY_FIND, commandLine.command());
+        assertEquals("walk  dog", commandLine.arguments());
+        assertEquals(new Parser.CommandLine(Command.LIST, ""), Parser.scanCommand(" list "));
+        assertEquals(new Parser.CommandLine(null, "dog"), Parser.scanCommand("walk dog"));
+        assertNull(Parser.scanCommand("   "));
+    }
+
+    @Test
+    public void splitCommandsTest() {
+        assertEquals(List.of("todo walk dog", "mark 1", "todo buy milk; eggs", "list"),
+                Parser.splitCommands("todo walk dog\r\n\n  mark 1 \ntodo buy milk\\; eggs\nlist\n"));
+        assertEquals(List.of("todo call mom", "delete 3"), Parser.splitCommands("todo call mom; delete 3;;"));
+        assertEquals(List.of("todo a;b;c", "list"), Parser.splitCommands("todo a\\;b\\;c ; list"));
+        assertEquals(List.of("todo a\\b"), Parser.splitCommands("todo a\\b"));
+    }
+
+    @Test
+    public void invalidCommandsAreSharedErrorResultsTest() {
+        Ui ui = new Ui();
+        assertTrue(Action.tryUserAction("mark 2", false, true, ui).isSuccess());
+        assertSame(ActionResult.INVALID_COMMAND, Action.tryUserAction("   ", false, true, ui));
+        assertSame(ActionResult.INVALID_COMMAND, Action.tryUserAction("walk dog", false, true, ui));
+        assertSame(ActionResult.INCOMPLETE_COMMAND, Action.tryUserAction("todo", false, true, ui));
+        assertSame(ActionResult.INCOMPLETE_COMMAND, Action.tryUserAction("walk", false, true, ui));
+        assertSame(ActionResult.INVALID_TASK_NUMBER, Action.tryUserAction("mark two", false, true, ui));
+        assertSame(ActionResult.INVALID_TASK_NUMBER, Action.tryUserAction("delete #0", false, true, ui));
+        assertSame(ActionResult.INVALID_REMINDER, Action.tryUserAction("reminder within 3y", false, true, ui));
+        assertSame(ActionResult.INVALID_DEADLINE, Action.tryUserAction("deadline return book /by Sunday", false, true,
+                ui));
+        assertSame(ActionResult.INVALID_DEADLINE, Action.tryUserAction("deadline return book /by 2/13/2099 1800",
+                false, true, ui));
+        assertSame(ActionResult.INVALID_EVENT, Action.tryUserAction("event meeting /from 2/12/2099 6pm /to 2/12/2099 "
+                + "2000", false, true, ui));
+        assertTrue(Action.tryUserAction("deadline return book /by 2/12/2099 1800", false, true, ui).isSuccess());
+
+        assertTrue(Action.tryUserAction("delete 3,7, 9 - 20", false, true, ui).isSuccess());
+        assertTrue(Action.tryUserAction("mark Done", false, true, ui).isSuccess());
+        for (String selection : List.of("1-", "-1-3", "5-3", "0-2", "1,,2", "1,", "3-x", "1-99999999999")) {
+            assertSame(ActionResult.INVALID_TASK_NUMBER, Action.tryUserAction("delete " + selection, false, true, ui));
+        }
+
+        TabbyException error = assertThrows(TabbyExceptionInvalidTaskNumber.class,
+                () -> Action.userAction("unmark -1", false, true, ui));
+        assertEquals(0, error.getStackTrace().length);
+    }
+
+    @Test
+    public void parseUserDatesTest() throws TabbyException {
+        Parser.DeadlineDetails deadline = Parser.parseDeadline("return book/by  2/12/2099 1800", true);
+        assertEquals("return book", deadline.description());
+        assertEquals(TaskTime.toEpochSecond(LocalDateTime.of(2099, 12, 2, 18, 0)), deadline.by());
+
+        // Days past the end of the month are moved back to its last day
+        Parser.EventDetails event = Parser.parseEvent("meeting /from 30/2/2099 0930 /to 01/03/2099 1000", true);
+        assertEquals("meeting", event.description());
+        assertEquals(TaskTime.toEpochSecond(LocalDateTime.of(2099, 2, 28, 9, 30)), event.from());
+        assertEquals(TaskTime.toEpochSecond(LocalDateTime.of(2099, 3, 1, 10, 0)), event.to());
+
+        assertThrows(TabbyExceptionInvalidDeadlineInput.class, () -> Parser.parseDeadline("/by 2/12/2099 1800", true));
+        assertThrows(TabbyExceptionInvalidDeadlineInput.class, () -> Parser.parseDeadline("book /by 2/12/2020 1800",
+                true));
+        assertThrows(TabbyExceptionInvalidEventInput.class, () -> Parser.parseEvent("meeting /from 2/12/2099 1800",
+                true));
+        assertThrows(TabbyExceptionInvalidEventInput.class, () -> Parser.parseEvent(
+                "meeting /from 2/12/2099 1800 /to 1/12/2099 1800", true));
+    }
+}
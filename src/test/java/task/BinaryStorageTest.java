@@ -0,0 +1,58 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class BinaryStorageTest {
+    private static final LocalDateTime SIX_PM_TIME = LocalDateTime.of(2025, 12, 2, 18, 0);
+    private static final String SIX_PM = SIX_PM_TIME.format(TaskTime.DISPLAY_FORMATTER);
+    private static final String EIGHT_PM = LocalDateTime.of(2025, 12, 2, 20, 0).format(TaskTime.DISPLAY_FORMATTER);
+    private static final List<String> TASKS = List.of(
+            "[T][ ] walk dog",
+            "[D][X] return book (by: " + SIX_PM + ")",
+            "[E][ ] project meeting (from: " + SIX_PM + " to: " + EIGHT_PM + ")");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void saveAndLoadTest() {
+        Ui ui = new Ui();
+        BinaryStorage storage = new BinaryStorage(tempDir.toString(), "tabby_data.bin", ui);
+        TaskManager taskManager = new TaskManager(storage, ui);
+        taskManager.addTask(new ToDo("walk dog", false));
+        taskManager.addTask(new Deadline("return book", true, TaskTime.toEpochSecond(SIX_PM_TIME)));
+        taskManager.markTaskDone(0);
+
+        LoadResult result = storage.loadTasks();
+        assertEquals(2, result.getTasks().size());
+        assertEquals("[T][X] walk dog", result.getTasks().get(0).toString());
+        assertEquals(TASKS.get(1), result.getTasks().get(1).toString());
+    }
+
+    @Test
+    public void convertRoundTripTest() throws IOException {
+        File text = tempDir.resolve("tabby_data.txt").toFile();
+        File binary = tempDir.resolve("tabby_data.bin").toFile();
+        File convertedText = tempDir.resolve("converted.txt").toFile();
+        Files.write(text.toPath(), TASKS);
+        Files.write(text.toPath(), List.of("not a task"), StandardOpenOption.APPEND);
+
+        assertEquals(1, TaskFileConverter.toBinary(text, binary).getRejectedCount());
+        LoadResult result = TaskFileConverter.toText(binary, convertedText);
+
+        assertEquals(3, result.getTasks().size());
+        assertEquals(TASKS, Files.readAllLines(convertedText.toPath()));
+    }
+}
@@ -0,0 +1,48 @@
+package task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import tabby.Ui;
+
+/**
+ * Measures the heap taken per task by a task manager in each {@link TaskLayout}.
+ * Run with {@code java -cp <main and test classes> task.HeapBenchmark [tasks] [layout]}; each layout
+ * is best measured in a JVM of its own.
+ */
+public class HeapBenchmark {
+    private static final int DEFAULT_TASKS = 500_000;
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        Path directory = Files.createTempDirectory("tabby-bench");
+        Path taskFile = directory.resolve("tabby_data.txt");
+        LoadBenchmark.writeTasks(taskFile, taskCount);
+
+        String selected = args.length > 1 ? args[1] : "all";
+        for (TaskLayout layout : TaskLayout.values()) {
+            if (!selected.equals("all") && !selected.equalsIgnoreCase(layout.name())) {
+                continue;
+            }
+            long before = usedHeap();
+            TaskManager taskManager = new TaskManager(new TextStorage(directory.toString(), "tabby_data.txt",
+                    new Ui()), new Ui(), layout);
+            long after = usedHeap();
+            System.out.printf("%-8s %6.1f bytes per task (%d tasks)%n", layout,
+                    (after - before) / (double) taskCount, taskManager.getTasks().size());
+        }
+
+        Files.deleteIfExists(directory.resolve("tabby_data.txt.snap"));
+        Files.delete(taskFile);
+        Files.delete(directory);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,87 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class JournalStorageTest {
+    private static final String FILENAME = "tabby_data.txt";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void replayJournalTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#1"));
+
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(
+                new JournalStorage(tempDir.toString(), FILENAME, ui, Long.MAX_VALUE), ui);
+        taskManager.addTask(new ToDo("feed cat", false));
+        taskManager.addTask(new ToDo("read book", false));
+        taskManager.markTaskDone(1);
+        taskManager.deleteTask(0);
+
+        // The snapshot is untouched, only the journal grows
+        assertEquals(List.of("[T][ ] walk dog\t#1"), Files.readAllLines(taskFile));
+
+        TaskManager reloaded = new TaskManager(
+                new JournalStorage(tempDir.toString(), FILENAME, ui, Long.MAX_VALUE), ui);
+        assertEquals(2, reloaded.getTasks().size());
+        assertEquals("[T][X] feed cat", reloaded.getTasks().get(0).toString());
+        assertEquals("[T][ ] read book", reloaded.getTasks().get(1).toString());
+        assertEquals(3, reloaded.getTasks().get(1).getId());
+    }
+
+    @Test
+    public void durableSaveFoldsJournalTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#1"));
+
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(
+                new JournalStorage(tempDir.toString(), FILENAME, ui, Long.MAX_VALUE), ui);
+        taskManager.enableGroupCommit(1);
+        taskManager.addTask(new ToDo("feed cat", false));
+        taskManager.markTaskDone(0);
+
+        // Each change is on disk in the task file before it is confirmed
+        assertEquals(List.of("[T][X] walk dog\t#1", "[T][ ] feed cat\t#2"), Files.readAllLines(taskFile));
+        assertFalse(Files.exists(tempDir.resolve(FILENAME + ".journal.old")));
+        assertFalse(Files.exists(tempDir.resolve(FILENAME + ".journal.folded")));
+        taskManager.close();
+    }
+
+    @Test
+    public void journalSizeCountsBytesTest() throws IOException {
+        Ui ui = new Ui();
+        JournalStorage storage = new JournalStorage(tempDir.toString(), FILENAME, ui, Long.MAX_VALUE);
+        TaskManager taskManager = new TaskManager(storage, ui);
+        taskManager.addTask(new ToDo("feed the \uD83D\uDC31 at the caf\u00E9", false));
+        taskManager.markTaskDone(0);
+
+        assertEquals(Files.size(tempDir.resolve(FILENAME + ".journal")), storage.getJournalSize());
+    }
+
+    @Test
+    public void compactJournalTest() throws IOException {
+        Ui ui = new Ui();
+        JournalStorage storage = new JournalStorage(tempDir.toString(), FILENAME, ui, 1);
+        TaskManager taskManager = new TaskManager(storage, ui);
+        taskManager.addTask(new ToDo("walk dog", false));
+        storage.saveTasks(taskManager.getTasks());
+
+        assertEquals(List.of("[T][ ] walk dog\t#1"), Files.readAllLines(tempDir.resolve(FILENAME)));
+        assertFalse(Files.exists(tempDir.resolve(FILENAME + ".journal")));
+        assertFalse(Files.exists(tempDir.resolve(FILENAME + ".journal.old")));
+    }
+}
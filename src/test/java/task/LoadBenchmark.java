@@ -0,0 +1,55 @@
+package task;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import tabby.Ui;
+
+/**
+ * Compares loading a large task file line by line with {@code Scanner} against the parallel loader.
+ * Run with {@code java -cp <main and test classes> task.LoadBenchmark [lines]}.
+ */
+public class LoadBenchmark {
+    private static final int DEFAULT_LINES = 1_000_000;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINES;
+        Path directory = Files.createTempDirectory("tabby-bench");
+        File taskFile = directory.resolve("tabby_data.txt").toFile();
+        writeTasks(taskFile.toPath(), lines);
+        System.out.printf("%d lines, %.1f MB%n", lines, taskFile.length() / 1e6);
+
+        TextStorage storage = new TextStorage(directory.toString(), "tabby_data.txt", new Ui());
+        for (int run = 0; run < RUNS; run++) {
+            LoadResult scanned = storage.scanTasks(taskFile);
+            LoadResult parallel = ParallelTaskLoader.load(taskFile);
+            System.out.printf("run %d: scanner %5d ms, parallel %5d ms (%d tasks)%n", run + 1,
+                    scanned.getElapsedMillis(), parallel.getElapsedMillis(), parallel.getTasks().size());
+        }
+
+        Files.delete(taskFile.toPath());
+        Files.delete(directory);
+    }
+
+    /**
+     * Writes a task file with an even mix of to-dos, deadlines and events.
+     */
+    static void writeTasks(Path taskFile, int lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(taskFile)) {
+            for (int i = 0; i < lines; i++) {
+                String status = i % 4 == 0 ? "X" : " ";
+                switch (i % 3) {
+                case 0 -> writer.write("[T][" + status + "] read chapter " + i);
+                case 1 -> writer.write("[D][" + status + "] submit report " + i + " (by: Dec 02 2025, 6:00 pm)");
+                default -> writer.write("[E][" + status + "] project meeting " + i
+                        + " (from: Dec 02 2025, 6:00 pm to: Dec 02 2025, 8:00 pm)");
+                }
+                writer.newLine();
+            }
+        }
+    }
+}
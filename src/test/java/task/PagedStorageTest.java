@@ -0,0 +1,88 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class PagedStorageTest {
+    private static final String FILENAME = "tabby_data.txt";
+    private static final String SIX_PM = LocalDateTime.of(2025, 12, 2, 18, 0).format(TaskTime.DISPLAY_FORMATTER);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void loadReadsTasksOnDemandTest() throws IOException {
+        Files.write(tempDir.resolve(FILENAME), List.of(
+                "[T][ ] walk dog",
+                "not a task",
+                "  [D][X] return book (by: Dec 02 2025, 6:00 pm)  ",
+                "",
+                "[E][ ] project meeting (from: Dec 02 2025, 6:00 pm to: Dec 02 2025, 8:00 pm)"));
+
+        LoadResult result = new PagedStorage(tempDir.toString(), FILENAME, new Ui(), 2).loadTasks();
+        PagedTaskList taskList = (PagedTaskList) result.getTasks();
+        assertEquals(3, taskList.size());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals(0, taskList.getLoadedCount());
+        assertEquals('D', taskList.getType(1));
+        assertTrue(taskList.isDone(1));
+
+        assertEquals("[D][X] return book (by: " + SIX_PM + ")", taskList.get(1).toString());
+        for (Task task : taskList) {
+            assertTrue(task.toString().startsWith("["));
+        }
+        assertEquals(2, taskList.getLoadedCount());
+    }
+
+    @Test
+    public void mutationsAreWrittenToFileTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog", "[T][ ] feed cat", "[T][ ] read book"));
+
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new PagedStorage(tempDir.toString(), FILENAME, ui, 1), ui);
+        taskManager.markTaskDone(1);
+        taskManager.addTask(new ToDo("water plants", false));
+        // The first change writes the IDs given to the lines that had none
+        assertEquals(List.of("[T][ ] walk dog\t#1", "[T][X] feed cat\t#2", "[T][ ] read book\t#3",
+                "[T][ ] water plants\t#4"), Files.readAllLines(taskFile));
+
+        taskManager.deleteTask(0);
+        taskManager.markTaskNotDone(0);
+        assertEquals(List.of("[T][ ] feed cat\t#2", "[T][ ] read book\t#3", "[T][ ] water plants\t#4"),
+                Files.readAllLines(taskFile));
+
+        TaskManager reloaded = new TaskManager(new PagedStorage(tempDir.toString(), FILENAME, ui, 1), ui);
+        assertEquals("[T][ ] water plants", reloaded.getTasks().get(2).toString());
+        reloaded.markTaskDoneById(3);
+        reloaded.addTask(new ToDo("walk dog", false));
+        assertEquals(List.of("[T][ ] feed cat\t#2", "[T][X] read book\t#3", "[T][ ] water plants\t#4",
+                "[T][ ] walk dog\t#5"), Files.readAllLines(taskFile));
+    }
+
+    @Test
+    public void unreadableLineIsKeptOutOfListTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        String unreadable = "[D][ ] return book (by: Sunday)\t#2";
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#1", unreadable, "[T][ ] feed cat\t#3"));
+
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new PagedStorage(tempDir.toString(), FILENAME, ui, 1), ui);
+        assertEquals(List.of(unreadable), taskManager.getLoadResult().getUnreadableLines());
+        assertEquals(2, taskManager.getTasks().size());
+        assertTrue(taskManager.displayTaskList().contains("2. [T][ ] feed cat"));
+
+        taskManager.deleteTask(0);
+        assertEquals(List.of("[T][ ] feed cat\t#3", unreadable), Files.readAllLines(taskFile));
+    }
+}
@@ -0,0 +1,74 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class SegmentedStorageTest {
+    private static final String FILENAME = "tabby_data.txt";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void durableSaveWritesSegmentsTest() throws IOException {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new SegmentedStorage(tempDir.toString(), FILENAME, ui, 2), ui);
+        taskManager.enableGroupCommit(1);
+        for (int i = 1; i <= 3; i++) {
+            taskManager.addTask(new ToDo("task " + i, false));
+        }
+        taskManager.deleteTask(0);
+
+        TaskManager reloaded = new TaskManager(new SegmentedStorage(tempDir.toString(), FILENAME, ui, 2), ui);
+        assertEquals("= ^_^ = Here are the tasks in your list:\n1. [T][ ] task 2 #2\n2. [T][ ] task 3 #3",
+                reloaded.displayTaskList());
+        taskManager.close();
+    }
+
+    @Test
+    public void mutationRewritesOneSegmentTest() throws IOException {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new SegmentedStorage(tempDir.toString(), FILENAME, ui, 2), ui);
+        for (int i = 1; i <= 5; i++) {
+            taskManager.addTask(new ToDo("task " + i, false));
+        }
+        Path segments = tempDir.resolve(FILENAME + ".segments");
+        assertEquals(List.of("[T][ ] task 5\t#5"), Files.readAllLines(segments.resolve("segment-000002.txt")));
+
+        taskManager.markTaskDone(2);
+        taskManager.deleteTask(0);
+        taskManager.deleteTask(0);
+
+        assertFalse(Files.exists(segments.resolve("segment-000000.txt")));
+        assertEquals(List.of("[T][X] task 3\t#3", "[T][ ] task 4\t#4"),
+                Files.readAllLines(segments.resolve("segment-000001.txt")));
+
+        TaskManager reloaded = new TaskManager(new SegmentedStorage(tempDir.toString(), FILENAME, ui, 2), ui);
+        assertEquals(3, reloaded.getTasks().size());
+        assertEquals("[T][X] task 3", reloaded.getTasks().get(0).toString());
+        assertEquals("[T][ ] task 5", reloaded.getTasks().get(2).toString());
+    }
+
+    @Test
+    public void migrateTextFileTest() throws IOException {
+        Files.write(tempDir.resolve(FILENAME), List.of("[T][ ] walk dog", "[T][X] feed cat", "[T][ ] read book"));
+
+        Ui ui = new Ui();
+        LoadResult result = new SegmentedStorage(tempDir.toString(), FILENAME, ui, 2).loadTasks();
+        assertEquals(3, result.getTasks().size());
+
+        LoadResult reloaded = new SegmentedStorage(tempDir.toString(), FILENAME, ui, 2).loadTasks();
+        assertEquals("[T][ ] read book", reloaded.getTasks().get(2).toString());
+        assertEquals(List.of("segment-000000.txt", "segment-000001.txt"),
+                Files.readAllLines(tempDir.resolve(FILENAME + ".segments").resolve("manifest")));
+    }
+}
@@ -0,0 +1,91 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class StorageConfigTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void defaultBackendTest() {
+        StorageConfig config = new StorageConfig("./data", new Properties());
+        assertTrue(config.createStorage(new Ui()) instanceof TextStorage);
+    }
+
+    @Test
+    public void configFileBackendTest() {
+        Properties properties = new Properties();
+        properties.setProperty("storage", "memory");
+        StorageConfig config = new StorageConfig("./data", properties);
+        assertTrue(config.createStorage(new Ui()) instanceof MemoryStorage);
+    }
+
+    @Test
+    public void unreadableConfigFileTest() throws IOException {
+        assertEquals("text", StorageConfig.load(tempDir.toString()).get("storage", "text"));
+        Files.writeString(tempDir.resolve(StorageConfig.CONFIG_FILENAME), "storage=memory\n");
+        assertEquals("memory", StorageConfig.load(tempDir.toString()).get("storage", "text"));
+
+        // A directory in place of the config file cannot be read
+        Path configDirectory = Files.createDirectory(tempDir.resolve("config"));
+        Files.createDirectory(configDirectory.resolve(StorageConfig.CONFIG_FILENAME));
+        assertThrows(UncheckedIOException.class, () -> StorageConfig.load(configDirectory.toString()));
+    }
+
+    @Test
+    public void unknownBackendTest() {
+        Properties properties = new Properties();
+        properties.setProperty("storage", "floppy");
+        StorageConfig config = new StorageConfig("./data", properties);
+        assertThrows(IllegalArgumentException.class, () -> config.createStorage(new Ui()));
+    }
+
+    @Test
+    public void durableNeedsSupportingBackendTest() {
+        Properties properties = new Properties();
+        properties.setProperty("durable", "true");
+        assertTrue(new StorageConfig("./data", properties).createStorage(new Ui()) instanceof TextStorage);
+        for (String backend : new String[] {"journal", "segmented", "paged", "binary"}) {
+            properties.setProperty("storage", backend);
+            assertTrue(new StorageConfig("./data", properties).createStorage(new Ui()) instanceof DurableStorage);
+        }
+        properties.setProperty("storage", "memory");
+        StorageConfig config = new StorageConfig("./data", properties);
+        assertThrows(IllegalArgumentException.class, () -> config.createStorage(new Ui()));
+    }
+
+    @Test
+    public void sizeSettingsMustBePositiveTest() {
+        for (String size : new String[] {"0", "-1", "4294967296"}) {
+            for (String backend : new String[] {"segmented", "paged"}) {
+                Properties properties = new Properties();
+                properties.setProperty("storage", backend);
+                properties.setProperty("segment.size", size);
+                properties.setProperty("paged.cacheSize", size);
+                StorageConfig config = new StorageConfig("./data", properties);
+                assertThrows(IllegalArgumentException.class, () -> config.createStorage(new Ui()));
+            }
+        }
+    }
+
+    @Test
+    public void memoryStorageTest() {
+        MemoryStorage storage = new MemoryStorage();
+        TaskManager taskManager = new TaskManager(storage, new Ui());
+        taskManager.addTask(new ToDo("walk dog", false));
+        taskManager.markTaskDone(0);
+        assertEquals(2, storage.getSaveCount());
+    }
+}
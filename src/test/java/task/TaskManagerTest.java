@@ -0,0 +1,515 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class TaskManagerTest {
+    private static final String FILENAME = "tabby_data.txt";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void writeBehindTest() throws IOException {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new TextStorage(tempDir.toString(), FILENAME, ui), ui);
+        taskManager.enableWriteBehind(60_000);
+
+        taskManager.addTask(new ToDo("walk dog", false));
+        taskManager.addTask(new ToDo("feed cat", false));
+        taskManager.markTaskDone(0);
+        Path taskFile = tempDir.resolve(FILENAME);
+        assertEquals(List.of(), Files.readAllLines(taskFile));
+
+        taskManager.flush();
+        assertEquals(List.of("[T][X] walk dog\t#1", "[T][ ] feed cat\t#2"), Files.readAllLines(taskFile));
+    }
+
+    @Test
+    public void groupCommitTest() throws Exception {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new TextStorage(tempDir.toString(), FILENAME, ui), ui);
+        taskManager.enableGroupCommit(20);
+        Path taskFile = tempDir.resolve(FILENAME);
+
+        List<Thread> threads = new ArrayList<>();
+        List<String> missing = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            String description = "task " + i;
+            threads.add(new Thread(() -> {
+                taskManager.addTask(new ToDo(description, false));
+                try {
+                    List<String> lines = Files.readAllLines(taskFile);
+                    if (lines.stream().noneMatch(line -> line.startsWith("[T][ ] " + description + "\t#"))) {
+                        missing.add(description);
+                    }
+                } catch (IOException e) {
+                    missing.add(description);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), missing);
+        assertEquals(8, Files.readAllLines(taskFile).size());
+        assertTrue(taskManager.displayStats().contains("Commits: "));
+    }
+
+    @Test
+    public void failedDurableSaveIsReportedTest() throws IOException {
+        Ui ui = new Ui();
+        // A data directory that is a file cannot hold the task file
+        Path notADirectory = Files.createFile(tempDir.resolve("not a directory"));
+        TaskManager taskManager = new TaskManager(new TextStorage(notADirectory.toString(), FILENAME, ui), ui);
+        taskManager.enableGroupCommit(1);
+        assertThrows(UncheckedIOException.class, () -> taskManager.addTask(new ToDo("walk dog", false)));
+        assertThrows(UncheckedIOException.class, taskManager::flush);
+
+        boolean[] isFailing = {true};
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, ui) {
+            @Override
+            public void saveTasksDurably(List<Task> taskList) {
+                if (isFailing[0]) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+                super.saveTasksDurably(taskList);
+            }
+        };
+        TaskManager retrying = new TaskManager(storage, ui);
+        retrying.enableGroupCommit(1);
+        assertThrows(UncheckedIOException.class, () -> retrying.addTask(new ToDo("walk dog", false)));
+        isFailing[0] = false;
+        retrying.addTask(new ToDo("feed cat", false));
+        assertEquals(List.of("[T][ ] walk dog\t#1", "[T][ ] feed cat\t#2"),
+                Files.readAllLines(tempDir.resolve(FILENAME)));
+    }
+
+    @Test
+    public void remindTest() {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new MemoryStorage(), ui);
+        long now = TaskTime.now();
+        Deadline nextWeek = new Deadline("submit report", false, now + 7 * 24 * 60 * 60);
+        Event tomorrow = new Event("project meeting", false, now + 24 * 60 * 60, now + 25 * 60 * 60);
+        Deadline yesterday = new Deadline("return book", false, now - 24 * 60 * 60);
+        taskManager.addTask(new ToDo("walk dog", false));
+        taskManager.addTask(nextWeek);
+        taskManager.addTask(tomorrow);
+        taskManager.addTask(yesterday);
+
+        assertEquals("= ^_^ = Here are upcoming deadlines/events in your list:\n1. " + tomorrow
+                + "\n2. " + nextWeek + "\n= >_< = These deadlines/events are overdue:\n1. " + yesterday,
+                taskManager.remind());
+        assertEquals("= ^_^ = Here are upcoming deadlines/events in your list:\n1. " + tomorrow
+                + "\n= >_< = These deadlines/events are overdue:\n1. " + yesterday,
+                taskManager.remind(1, Long.MAX_VALUE));
+        assertEquals("= ^_^ = Here are upcoming deadlines/events in your list:\n1. " + tomorrow
+                + "\n= >_< = These deadlines/events are overdue:\n1. " + yesterday,
+                taskManager.remind(Integer.MAX_VALUE, 3 * 24 * 60 * 60));
+
+        taskManager.markTaskDone(2);
+        taskManager.deleteTask(3);
+        assertEquals("= ^_^ = Here are upcoming deadlines/events in your list:\n1. " + nextWeek,
+                taskManager.remind());
+    }
+
+    @Test
+    public void searchTasksTest() {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new MemoryStorage(), ui);
+        taskManager.addTask(new ToDo("Read book", false));
+        taskManager.addTask(new ToDo("write report draft", false));
+        taskManager.addTask(new ToDo("return book to library", false));
+        taskManager.addTask(new ToDo("book flights", false));
+
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] Read book"
+                + "\n2. [T][ ] return book to library\n3. [T][ ] book flights", taskManager.searchTasks("BOOK"));
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] return book to library",
+                taskManager.searchTasks("book and library"));
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] write report draft"
+                + "\n2. [T][ ] book flights", taskManager.searchTasks("flights or draft report"));
+
+        taskManager.deleteTask(0);
+        taskManager.markTaskDone(1);
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][X] return book to library"
+                + "\n2. [T][ ] book flights", taskManager.searchTasks("book"));
+        assertEquals("= >_< = Error \n No matching tasks found!", taskManager.searchTasks("read"));
+    }
+
+    @Test
+    public void findTaskMatchesEveryTaskCheckTest() {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new MemoryStorage(), ui);
+        long now = TaskTime.now();
+        taskManager.addTask(new ToDo("Read book", false));
+        taskManager.addTask(new Deadline("return book", true, now));
+        taskManager.addTask(new Event("book club", false, now, now + 3600));
+        taskManager.addTask(new ToDo("bookkeeping [urgent]", false));
+        taskManager.deleteTask(0);
+        taskManager.addTask(new ToDo("read more books", false));
+        taskManager.markTaskDone(2);
+        assertTrue(taskManager.displayStats().contains("Find index: not built"));
+
+        for (String keyword : List.of("book", "ook", "bo", "Read", "D][X", "[T]", "] book", "urgent]", "to:", "zzz",
+                TaskTime.format(now).substring(0, 6))) {
+            StringBuilder expected = new StringBuilder();
+            int matchCount = 0;
+            for (Task task : taskManager.getTasks()) {
+                if (task.toString().contains(keyword)) {
+                    expected.append("\n").append(++matchCount).append(". ").append(task);
+                }
+            }
+            String expectedMessage = matchCount == 0
+                    ? "= >_< = Error \n No matching tasks found!"
+                    : "= ^_^ = Here are the matching tasks in your list:" + expected;
+            assertEquals(expectedMessage, taskManager.findTask(keyword), keyword);
+        }
+        assertTrue(taskManager.displayStats().contains(" trigrams, "));
+
+        // Changes made once the index is built are reflected in it
+        taskManager.addTask(new ToDo("cookbook", false));
+        taskManager.deleteTask(0);
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] cookbook",
+                taskManager.findTask("kbo"));
+        assertEquals("= >_< = Error \n No matching tasks found!", taskManager.findTask("return"));
+    }
+
+    @Test
+    public void fuzzyFindTaskTest() {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new MemoryStorage(), ui);
+        taskManager.addTask(new ToDo("project meeting", false));
+        taskManager.addTask(new ToDo("meeting notes", false));
+        taskManager.addTask(new ToDo("buy milk", false));
+        taskManager.addTask(new ToDo("weekly meting", false));
+
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] weekly meting"
+                + "\n2. [T][ ] project meeting\n3. [T][ ] meeting notes", taskManager.fuzzyFindTask("meting"));
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] project meeting",
+                taskManager.fuzzyFindTask("projekt meetign"));
+        assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][ ] buy milk",
+                taskManager.fuzzyFindTask("mlk"));
+
+        taskManager.deleteTask(0);
+        assertEquals("= >_< = Error \n No matching tasks found!", taskManager.fuzzyFindTask("projet"));
+    }
+
+    @Test
+    public void batchSavesOnceTest() throws IOException {
+        Ui ui = new Ui();
+        int[] saves = new int[2];
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, ui) {
+            @Override
+            public void saveTasks(List<Task> taskList) {
+                saves[0]++;
+                super.saveTasks(taskList);
+            }
+
+            @Override
+            public void taskAdded(List<Task> taskList, Task task) {
+                saves[1]++;
+                super.taskAdded(taskList, task);
+            }
+        };
+        TaskManager taskManager = new TaskManager(storage, ui);
+
+        String response = taskManager.runBatch(() -> {
+            for (int i = 0; i < 5000; i++) {
+                taskManager.addTask(new ToDo("task " + i, false));
+            }
+            taskManager.deleteTask(0);
+            return taskManager.markTaskDone(0);
+        });
+        assertEquals("= ^_^ = Solid! I've marked this task as done:\n [T][X] task 1", response);
+        assertEquals(1, saves[0]);
+        assertEquals(0, saves[1]);
+        List<String> lines = Files.readAllLines(tempDir.resolve(FILENAME));
+        assertEquals(4999, lines.size());
+        assertEquals("[T][X] task 1\t#2", lines.get(0));
+
+        taskManager.addTask(new ToDo("walk dog", false));
+        assertEquals(1, saves[1]);
+    }
+
+    @Test
+    public void bulkChangesTest() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            lines.add("[T][" + (i % 3 == 0 ? "X" : " ") + "] task " + i);
+        }
+        Ui ui = new Ui();
+        List<String> layouts = new ArrayList<>(List.of("PAGED"));
+        for (TaskLayout layout : TaskLayout.values()) {
+            layouts.add(layout.name());
+        }
+
+        for (String layout : layouts) {
+            Path directory = Files.createDirectory(tempDir.resolve(layout));
+            Files.write(directory.resolve(FILENAME), lines);
+            int[] saves = new int[1];
+            TextStorage storage = layout.equals("PAGED")
+                    ? new PagedStorage(directory.toString(), FILENAME, ui, 2) {
+                        @Override
+                        public void saveTasks(List<Task> taskList) {
+                            saves[0]++;
+                            super.saveTasks(taskList);
+                        }
+                    }
+                    : new TextStorage(directory.toString(), FILENAME, ui) {
+                        @Override
+                        public void saveTasks(List<Task> taskList) {
+                            saves[0]++;
+                            super.saveTasks(taskList);
+                        }
+                    };
+            TaskManager taskManager = layout.equals("PAGED")
+                    ? new TaskManager(storage, ui)
+                    : new TaskManager(storage, ui, TaskLayout.valueOf(layout));
+
+            assertEquals("= ^_^ = Solid! I've marked 2 tasks as done.",
+                    taskManager.markTasksDone(TaskSelection.ofRanges(new int[] {0}, new int[] {2})));
+            // Tasks 3, 7 to 9 and 5, given out of order
+            assertEquals("= ^_^ = Alrights. I've deleted 5 tasks.\nNow you have 5 tasks in the list",
+                    taskManager.deleteTasks(TaskSelection.ofRanges(new int[] {2, 6, 4}, new int[] {3, 9, 5})));
+            assertEquals("= ^_^ = Alrights. I've deleted 3 tasks.\nNow you have 2 tasks in the list",
+                    taskManager.deleteTasks(TaskSelection.DONE));
+            assertEquals("= >_< = Error \n Invalid task number.",
+                    taskManager.markTasksNotDone(TaskSelection.ofRanges(new int[] {0}, new int[] {3})));
+            assertEquals("= ^_^ = Solid! I've marked 2 tasks as done.",
+                    taskManager.markTasksDone(TaskSelection.NOT_DONE));
+            assertEquals("= >_< = Error \n No matching tasks found!", taskManager.deleteTasks(TaskSelection.NOT_DONE));
+
+            assertEquals(4, saves[0]);
+            assertEquals(List.of("[T][X] task 4\t#4", "[T][X] task 10\t#10"),
+                    Files.readAllLines(directory.resolve(FILENAME)));
+            assertEquals("= ^_^ = Here are the tasks in your list:\n1. [T][X] task 4 #4\n2. [T][X] task 10 #10",
+                    taskManager.displayTaskList());
+            assertEquals("= ^_^ = Here are the matching tasks in your list:\n1. [T][X] task 4\n2. [T][X] task 10",
+                    taskManager.searchTasks("task"));
+        }
+    }
+
+    @Test
+    public void failedBatchIsUndoneTest() throws IOException {
+        List<String> lines = List.of("[T][ ] task 1\t#1", "[T][X] task 2\t#2", "[T][ ] task 3\t#3",
+                "[T][X] task 4\t#4");
+        Ui ui = new Ui();
+        for (String layout : List.of("PAGED", "OBJECTS", "COLUMNAR")) {
+            Path directory = Files.createDirectory(tempDir.resolve(layout));
+            Files.write(directory.resolve(FILENAME), lines);
+            TaskManager taskManager = layout.equals("PAGED")
+                    ? new TaskManager(new PagedStorage(directory.toString(), FILENAME, ui, 2), ui)
+                    : new TaskManager(new TextStorage(directory.toString(), FILENAME, ui), ui,
+                            TaskLayout.valueOf(layout));
+            String before = taskManager.displayTaskList();
+
+            assertThrows(IllegalStateException.class, () -> taskManager.runBatch(() -> {
+                taskManager.addTask(new ToDo("task 5", false));
+                taskManager.markTaskDone(0);
+                taskManager.deleteTask(1);
+                // A failing batch inside the batch only undoes its own change
+                assertThrows(IllegalStateException.class, () -> taskManager.runBatch(() -> {
+                    taskManager.deleteTaskById(5);
+                    throw new IllegalStateException();
+                }));
+                assertTrue(taskManager.displayTaskList().contains("task 5"));
+                taskManager.markTasksNotDone(TaskSelection.ALL);
+                taskManager.deleteTasks(TaskSelection.ofRanges(new int[] {0, 2}, new int[] {1, 3}));
+                throw new IllegalStateException();
+            }));
+            assertEquals(before, taskManager.displayTaskList());
+            assertEquals(lines, Files.readAllLines(directory.resolve(FILENAME)));
+
+            taskManager.markTaskDone(2);
+            taskManager.deleteTask(3);
+            assertEquals(List.of("[T][ ] task 1\t#1", "[T][X] task 2\t#2", "[T][X] task 3\t#3"),
+                    Files.readAllLines(directory.resolve(FILENAME)));
+        }
+    }
+
+    @Test
+    public void markOverlappingSelectionTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#1", "[T][ ] feed cat\t#2"));
+        Ui ui = new Ui();
+        int[] saves = {0};
+        TaskManager taskManager = new TaskManager(new TextStorage(tempDir.toString(), FILENAME, ui) {
+            @Override
+            public void saveTasks(List<Task> taskList) {
+                saves[0]++;
+                super.saveTasks(taskList);
+            }
+        }, ui);
+
+        taskManager.markTaskDone(0);
+        assertEquals("= ^_^ = Solid! I've marked 1 task as done.", taskManager.markTasksDone(TaskSelection.ALL));
+        assertEquals("= ^_^ = Those tasks are already marked as done.",
+                taskManager.markTasksDone(TaskSelection.DONE));
+        assertEquals(2, saves[0]);
+        assertEquals(List.of("[T][X] walk dog\t#1", "[T][X] feed cat\t#2"), Files.readAllLines(taskFile));
+    }
+
+    @Test
+    public void taskIdTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#7", "[T][ ] feed cat", "[T][ ] read book\t#7"));
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new TextStorage(tempDir.toString(), FILENAME, ui), ui);
+        assertEquals(List.of("[T][ ] walk dog\t#7", "[T][ ] feed cat", "[T][ ] read book\t#7"),
+                Files.readAllLines(taskFile));
+
+        taskManager.addTask(new ToDo("water plants", false));
+        assertEquals(List.of("[T][ ] walk dog\t#7", "[T][ ] feed cat\t#8", "[T][ ] read book\t#9",
+                "[T][ ] water plants\t#10"), Files.readAllLines(taskFile));
+
+        taskManager.deleteTaskById(7);
+        taskManager.markTaskDoneById(9);
+        assertEquals("= >_< = Error \n There is no task with ID #7. Use 'list' command to view the task IDs",
+                taskManager.markTaskNotDoneById(7));
+        assertEquals("= ^_^ = Here are the tasks in your list:\n1. [T][ ] feed cat #8\n2. [T][X] read book #9"
+                + "\n3. [T][ ] water plants #10", taskManager.displayTaskList());
+
+        TaskManager reloaded = new TaskManager(new TextStorage(tempDir.toString(), FILENAME, ui), ui);
+        reloaded.addTask(new ToDo("walk dog", false));
+        assertEquals(11, reloaded.getTasks().get(3).getId());
+    }
+
+    @Test
+    public void deletedIdsAreNotReusedTest() {
+        Ui ui = new Ui();
+        List<Supplier<Storage>> storages = List.of(
+                () -> new TextStorage(tempDir.resolve("text").toString(), FILENAME, ui),
+                () -> new PagedStorage(tempDir.resolve("paged").toString(), FILENAME, ui, 16),
+                () -> new BinaryStorage(tempDir.resolve("binary").toString(), "tabby_data.bin", ui),
+                () -> new SegmentedStorage(tempDir.resolve("segmented").toString(), FILENAME, ui, 2));
+        for (Supplier<Storage> storage : storages) {
+            TaskManager taskManager = new TaskManager(storage.get(), ui);
+            taskManager.addTask(new ToDo("walk dog", false));
+            taskManager.addTask(new ToDo("feed cat", false));
+            taskManager.addTask(new ToDo("read book", false));
+            taskManager.deleteTaskById(3);
+            taskManager.close();
+
+            TaskManager reloaded = new TaskManager(storage.get(), ui);
+            reloaded.addTask(new ToDo("water plants", false));
+            assertEquals(4, reloaded.getTasks().get(2).getId());
+            reloaded.deleteTasks(TaskSelection.ALL);
+            reloaded.close();
+
+            TaskManager emptied = new TaskManager(storage.get(), ui);
+            emptied.addTask(new ToDo("walk dog", false));
+            assertEquals(5, emptied.getTasks().get(0).getId());
+            emptied.close();
+        }
+    }
+
+    @Test
+    public void positionalChangesMatchArrayListTest() {
+        Ui ui = new Ui();
+        TaskManager taskManager = new TaskManager(new MemoryStorage(), ui);
+        List<Task> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new ToDo("task " + i, false);
+                taskManager.addTask(task);
+                expected.add(task);
+            } else if (random.nextBoolean()) {
+                int position = random.nextInt(expected.size());
+                taskManager.deleteTask(position);
+                expected.remove(position);
+            } else {
+                Task task = expected.remove(random.nextInt(expected.size()));
+                taskManager.deleteTaskById(task.getId());
+            }
+        }
+
+        List<Task> tasks = taskManager.getTasks();
+        assertEquals(expected, new ArrayList<>(tasks));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tasks.get(i));
+            assertEquals(i, tasks.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void columnarLayoutTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#3", "[T][X] feed cat"));
+        Ui ui = new Ui();
+        long now = TaskTime.now();
+        List<String> responses = new ArrayList<>();
+        for (TaskLayout layout : TaskLayout.values()) {
+            Path directory = Files.createDirectory(tempDir.resolve(layout.name()));
+            Files.copy(taskFile, directory.resolve(FILENAME));
+            TaskManager taskManager = new TaskManager(new TextStorage(directory.toString(), FILENAME, ui), ui,
+                    layout);
+            taskManager.addTask(new Deadline("return b\u00f6ok to the library", false, now + 60));
+            taskManager.addTask(new Event("book club", false, now - 3600, now + 3600));
+            taskManager.addTask(new ToDo("read book", false));
+            taskManager.markTaskDoneById(6);
+            taskManager.deleteTaskById(3);
+            taskManager.markTaskNotDone(0);
+
+            List<String> response = new ArrayList<>(List.of(taskManager.displayTaskList(), taskManager.remind(),
+                    taskManager.searchTasks("book"), taskManager.fuzzyFindTask("bok"),
+                    Files.readString(directory.resolve(FILENAME))));
+            for (String keyword : List.of("book", "b\u00f6ok", "X] re", "library (by:", "] feed cat", "to:", "d")) {
+                response.add(taskManager.findTask(keyword));
+            }
+            responses.add(String.join("\n", response));
+            assertEquals(layout.isColumnar(), taskManager.getTasks() instanceof ColumnarTaskList);
+        }
+        assertEquals(responses.get(0), responses.get(1));
+        assertEquals(responses.get(0), responses.get(2));
+    }
+
+    @Test
+    public void offHeapCompactionTest() {
+        ColumnarTaskList taskList = ColumnarTaskList.of(List.of(), true);
+        List<Task> expected = new ArrayList<>();
+        // Without compaction, the descriptions added would take about 3.5 MB
+        for (int i = 0; i < 50_000; i++) {
+            Task task = new ToDo("task number " + i + " with a description long enough to fill the arena", false);
+            taskList.add(task);
+            expected.add(task);
+            if (expected.size() > 1000) {
+                taskList.remove(i % 1000);
+                expected.remove(i % 1000);
+            }
+        }
+        for (int i = 0; i < expected.size(); i += 7) {
+            Task task = new ToDo("renamed " + i, true);
+            taskList.set(i, task);
+            expected.set(i, task);
+        }
+
+        assertTrue(taskList.isOffHeap());
+        assertTrue(taskList.getDescriptionBytes() <= 512 * 1024);
+        assertEquals(expected.size(), taskList.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), taskList.get(i).toString());
+        }
+        assertEquals(TrigramIndex.scan(expected, "1234 with").toString(), taskList.find("1234 with").toString());
+    }
+}
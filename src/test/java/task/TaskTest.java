@@ -0,0 +1,50 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskTest {
+    @Test
+    public void renderingIsCachedUntilStatusChangesTest() {
+        long time = TaskTime.now();
+        Task task = new Event("project meeting", false, time, time + 3600);
+        String rendered = task.toString();
+        assertSame(rendered, task.toString());
+        assertEquals("[E][ ] project meeting (from: " + TaskTime.format(time) + " to: "
+                + TaskTime.format(time + 3600) + ")", rendered);
+
+        task.markAsDone();
+        assertEquals("[E][X]" + rendered.substring(Task.STATUS_PREFIX_LENGTH), task.toString());
+        task.markAsNotDone();
+        assertEquals(rendered, task.toString());
+    }
+
+    @Test
+    public void fileBytesFollowStatusAndIdTest() {
+        Task task = new ToDo("walk dog", false);
+        assertArrayEquals("[T][ ] walk dog".getBytes(Task.FILE_CHARSET), task.toFileBytes());
+
+        task.setId(7);
+        byte[] line = task.toFileBytes();
+        assertArrayEquals("[T][ ] walk dog\t#7".getBytes(Task.FILE_CHARSET), line);
+        assertSame(line, task.toFileBytes());
+
+        task.markAsDone();
+        assertArrayEquals("[T][X] walk dog\t#7".getBytes(Task.FILE_CHARSET), task.toFileBytes());
+        assertEquals(task.toFileLine(), new String(task.toFileBytes(), Task.FILE_CHARSET));
+    }
+
+    @Test
+    public void displayTimeNeedsWholeMonthNameTest() {
+        // "anf" straddles "jan" and "feb" in the month table
+        assertThrows(DateTimeParseException.class, () -> TaskTime.toEpochSecond("Anf 02 2025, 6:00 pm"));
+        assertThrows(DateTimeParseException.class, () -> TaskTime.toEpochSecond("Xyz 02 2025, 6:00 pm"));
+        assertEquals(TaskTime.toEpochSecond("Dec 02 2025, 6:00 pm"), TaskTime.toEpochSecond("dec 02 2025, 6:00 PM"));
+    }
+}
@@ -0,0 +1,112 @@
+package task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tabby.Ui;
+
+public class TextStorageTest {
+    private static final String FILENAME = "tabby_data.txt";
+    private static final String SIX_PM = LocalDateTime.of(2025, 12, 2, 18, 0).format(TaskTime.DISPLAY_FORMATTER);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void loadTasksTest() throws IOException {
+        Files.write(tempDir.resolve(FILENAME), List.of(
+                "[T][ ] walk dog",
+                "[D][X] return book (by: Dec 02 2025, 6:00 pm)",
+                "not a task",
+                "",
+                "[E][ ] project meeting (from: Dec 02 2025, 6:00 pm to: Dec 02 2025, 8:00 pm)"));
+
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, new Ui());
+        LoadResult result = storage.loadTasks();
+
+        assertEquals(3, result.getTasks().size());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals("[D][X] return book (by: " + SIX_PM + ")", result.getTasks().get(1).toString());
+    }
+
+    @Test
+    public void loadTasksDoesNotRewriteFileTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        Files.write(taskFile, List.of("[T][ ] walk dog", "garbage"));
+
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, new Ui());
+        TaskManager taskManager = new TaskManager(storage, new Ui());
+
+        assertEquals(1, taskManager.getTasks().size());
+        assertEquals(List.of("[T][ ] walk dog", "garbage"), Files.readAllLines(taskFile));
+    }
+
+    @Test
+    public void unreadableTaskIsKeptTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        String unreadable = "[D][ ] return book (by: Sunday)\t#2";
+        Files.write(taskFile, List.of("[T][ ] walk dog\t#1", unreadable));
+
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, new Ui());
+        TaskManager taskManager = new TaskManager(storage, new Ui());
+        assertEquals(1, taskManager.getTasks().size());
+        assertEquals(List.of(unreadable), taskManager.getLoadResult().getUnreadableLines());
+        assertTrue(taskManager.getLoadResult().summary().contains("1 unreadable"));
+
+        taskManager.addTask(new ToDo("feed cat", false));
+        List<String> saved = Files.readAllLines(taskFile);
+        assertEquals(3, saved.size());
+        assertTrue(saved.get(1).startsWith("[T][ ] feed cat"));
+        assertEquals(unreadable, saved.get(2));
+
+        LoadResult parallel = ParallelTaskLoader.load(taskFile.toFile());
+        assertEquals(2, parallel.getTasks().size());
+        assertEquals(List.of(unreadable), parallel.getUnreadableLines());
+    }
+
+    @Test
+    public void parallelLoadMatchesScannerTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        LoadBenchmark.writeTasks(taskFile, 30_000);
+        Files.write(taskFile, List.of("garbage"), StandardOpenOption.APPEND);
+
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, new Ui());
+        LoadResult scanned = storage.scanTasks(taskFile.toFile());
+        LoadResult parallel = ParallelTaskLoader.load(taskFile.toFile());
+
+        assertEquals(30_000, parallel.getTasks().size());
+        assertEquals(1, parallel.getRejectedCount());
+        for (int i = 0; i < scanned.getTasks().size(); i++) {
+            assertEquals(scanned.getTasks().get(i).toString(), parallel.getTasks().get(i).toString());
+        }
+    }
+
+    @Test
+    public void snapshotUsedUntilFileChangesTest() throws IOException {
+        Path taskFile = tempDir.resolve(FILENAME);
+        LoadBenchmark.writeTasks(taskFile, 30_000);
+
+        TextStorage storage = new TextStorage(tempDir.toString(), FILENAME, new Ui());
+        assertEquals(30_000, storage.loadTasks().getTasks().size());
+        assertTrue(storage.getSnapshotFile().exists());
+
+        // A snapshot that matches the file is loaded instead of parsing the file
+        TaskSnapshot.write(storage.getSnapshotFile(), taskFile.toFile(), List.of(new ToDo("from snapshot", false)), 0);
+        LoadResult warm = storage.loadTasks();
+        assertEquals(1, warm.getTasks().size());
+        assertEquals("[T][ ] from snapshot", warm.getTasks().get(0).toString());
+
+        Files.write(taskFile, List.of("[T][ ] walk dog"), StandardOpenOption.APPEND);
+        assertEquals(30_001, storage.loadTasks().getTasks().size());
+        assertEquals(30_001, storage.loadTasks().getTasks().size());
+    }
+}